@@ -2,7 +2,12 @@ package eric;
 import eric.command.Command;
 import eric.command.ExitCommand;
 import eric.parser.Parser;
+import eric.parser.Suggester;
+import eric.repository.Durability;
 import eric.repository.Repository;
+import eric.repository.SnapshotFormat;
+import eric.repository.StorageMode;
+import eric.task.PrefixTrie;
 import eric.task.TaskList;
 import eric.ui.Ui;
 
@@ -28,10 +33,16 @@ public class Eric {
      */
     public Eric(String filePath) {
         ui = new Ui();
-        repo = new Repository(filePath);
+        repo = new Repository(filePath, StorageMode.JOURNAL, SnapshotFormat.CHECKSUMMED, Durability.FSYNC);
         parser = new Parser();
+        TaskList.measureParallelScans();
         try {
-            tasks = new TaskList(repo.load());
+            tasks = new TaskList(repo.loadLazily());
+            if (repo.isRestoredFromBackup()) {
+                startMessage = ui.backupRestoredIndi();
+            } else if (repo.getQuarantinedCount() > 0) {
+                startMessage = ui.quarantinedIndi(repo.getQuarantinedCount());
+            }
         } catch (EricException e) {
             startMessage = ui.emptyListIndi();
             tasks = new TaskList();
@@ -59,13 +70,55 @@ public class Eric {
             if (c instanceof ExitCommand) {
                 isExit = true;
             }
-            return c.execute(tasks, ui, repo);
+            synchronized (tasks) {
+                return c.execute(tasks, ui, repo);
+            }
 
         } catch (EricException e) {
             return ui.errorMsg(e.getMessage());
+        } catch (IllegalStateException e) {
+            // Tasks are rebuilt from the data file on first use, which is when a corrupted record is found
+            return ui.errorMsg(e.getMessage());
         }
     }
 
+    /**
+     * Creates a suggester for the word being typed, which keeps up with the tasks as they change.
+     * The words of the tasks are only gathered once a task word is first suggested, which reads every task of
+     * a list loaded lazily, so suggestions are meant to be made off the FX thread.
+     *
+     * @return The suggester of command words, flags and words of the tasks.
+     */
+    public Suggester getSuggester() {
+        return new Suggester(Eric::getTaskWords);
+    }
+
+    /**
+     * Gathers the words of the tasks while holding the lock of the list, so that a command waits for them
+     * rather than changing the tasks as they are read. No search index is built for them.
+     *
+     * @return The trie of the words of the tasks, or an empty trie if a task cannot be read.
+     */
+    private static PrefixTrie getTaskWords() {
+        try {
+            synchronized (tasks) {
+                return tasks.getWordPrefixes();
+            }
+        } catch (IllegalStateException e) {
+            // A corrupted record is reported by the next command, and commands and flags can still be suggested
+            return new PrefixTrie();
+        }
+    }
+
+    /**
+     * Waits for every change to be saved, for when the program is closed without the bye command.
+     *
+     * @throws EricException If a change could not be saved.
+     */
+    public void shutdown() throws EricException {
+        repo.flush();
+    }
+
     /**
      * Checks if the program should exit.
      *
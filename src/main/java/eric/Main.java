@@ -36,4 +36,9 @@ public class Main extends Application {
             Platform.exit();
         }
     }
+
+    @Override
+    public void stop() throws EricException {
+        eric.shutdown();
+    }
 }
@@ -1,18 +1,33 @@
 package eric;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import eric.parser.Suggester;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.geometry.Side;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 /**
  * Controller for the main GUI.
  */
 public class MainWindow extends AnchorPane {
+    /** How long typing must pause before suggestions are looked up. */
+    private static final Duration SUGGESTION_DELAY = Duration.millis(150);
+    private static final int SUGGESTION_COUNT = 5;
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -23,6 +38,14 @@ public class MainWindow extends AnchorPane {
     private Button sendButton;
 
     private Eric eric;
+    private Suggester suggester;
+    private final PauseTransition suggestionDelay = new PauseTransition(SUGGESTION_DELAY);
+    private final ContextMenu suggestionMenu = new ContextMenu();
+    private final ExecutorService suggestionThread = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "suggestions");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image ericImage = new Image(this.getClass().getResourceAsStream("/images/DaBaby.png"));
@@ -30,6 +53,8 @@ public class MainWindow extends AnchorPane {
     @FXML
     public void initialize() {
         scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        suggestionDelay.setOnFinished(event -> requestSuggestions(userInput.getText()));
+        userInput.textProperty().addListener((observable, oldText, newText) -> suggestionDelay.playFromStart());
     }
 
     /**
@@ -41,6 +66,7 @@ public class MainWindow extends AnchorPane {
     public void setEric(Eric e) {
         eric = e;
         dialogContainer.getChildren().addAll(DialogBox.getEricDialog(eric.getGreeting(), ericImage));
+        suggester = eric.getSuggester();
     }
 
     /**
@@ -49,6 +75,8 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     private void handleUserInput() {
+        suggestionDelay.stop();
+        suggestionMenu.hide();
         String input = userInput.getText();
         if (input == null || input.trim().isEmpty()) {
             dialogContainer.getChildren().add(
@@ -69,4 +97,51 @@ public class MainWindow extends AnchorPane {
             Platform.exit();
         }
     }
+
+    /**
+     * Looks up suggestions for the input on the suggestion thread, so that typing never waits for them.
+     * The words of the tasks are also gathered there, when a task word is first suggested.
+     *
+     * @param input The input typed so far.
+     */
+    private void requestSuggestions(String input) {
+        if (input == null || input.isEmpty() || eric == null) {
+            suggestionMenu.hide();
+            return;
+        }
+        Suggester current = suggester;
+        suggestionThread.execute(() -> {
+            List<String> suggestions = current.suggest(input, SUGGESTION_COUNT);
+            Platform.runLater(() -> showSuggestions(input, suggestions));
+        });
+    }
+
+    /**
+     * Shows the suggestions above the input, unless the input has changed since they were looked up.
+     *
+     * @param input The input the suggestions were looked up for.
+     * @param suggestions The suggested words.
+     */
+    private void showSuggestions(String input, List<String> suggestions) {
+        if (!input.equals(userInput.getText())) {
+            return;
+        }
+        if (suggestions.isEmpty()) {
+            suggestionMenu.hide();
+            return;
+        }
+        List<MenuItem> items = new ArrayList<>();
+        for (String suggestion : suggestions) {
+            MenuItem item = new MenuItem(suggestion);
+            item.setOnAction(event -> {
+                userInput.setText(Suggester.complete(input, suggestion));
+                userInput.positionCaret(userInput.getText().length());
+            });
+            items.add(item);
+        }
+        suggestionMenu.getItems().setAll(items);
+        if (!suggestionMenu.isShowing()) {
+            suggestionMenu.show(userInput, Side.TOP, 0, 0);
+        }
+    }
 }
@@ -48,14 +48,14 @@ public abstract class AddTaskCommand extends Command {
     protected abstract Task addTask(TaskList tasks) throws EricException;
 
     /**
-     * Persists all tasks to the repository.
+     * Persists the newly added task to the repository.
      *
      * @param tasks The task list to save.
      * @param repo The repository to save to.
      * @throws EricException If persistence fails.
      */
     protected void saveTasks(TaskList tasks, Repository repo) throws EricException {
-        repo.save(tasks.getEveryTask());
+        repo.saveChanges(tasks);
     }
 }
 
@@ -37,6 +37,6 @@ public class DeleteCommand extends Command {
      * @throws EricException If an error occurs during the saving of the task.
      */
     public void saveTasks(TaskList tasks, Repository repo) throws EricException {
-        repo.save(tasks.getEveryTask());
+        repo.saveChanges(tasks);
     }
 }
@@ -13,10 +13,11 @@ public class ExitCommand extends Command {
     /**
      * {@inheritDoc}
      *
-     * Exits the program.
+     * Waits for every change to be saved, then exits the program.
      */
     @Override
     public String execute(TaskList tasks, Ui ui, Repository repo) throws EricException {
+        repo.flush();
         return ui.bye();
     }
 }
@@ -0,0 +1,35 @@
+package eric.command;
+
+import java.util.List;
+
+import eric.EricException;
+import eric.repository.Repository;
+import eric.task.Query;
+import eric.task.TaskList;
+import eric.ui.Ui;
+
+/**
+ * Represents a command to show how a search would be run, without running it.
+ */
+public class ExplainCommand extends FindCommand {
+
+    /**
+     * Initialises an ExplainCommand object.
+     *
+     * @param query The search to explain.
+     */
+    public ExplainCommand(Query query) {
+        super(query);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Shows the order in which the filters of the search would be applied.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Repository repo) throws EricException {
+        List<String> plan = tasks.explain(query);
+        return ui.displayPlan(plan, extractSearchCriteria());
+    }
+}
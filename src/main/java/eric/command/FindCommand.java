@@ -1,10 +1,10 @@
 package eric.command;
 
-import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.List;
 
 import eric.EricException;
 import eric.repository.Repository;
+import eric.task.Query;
 import eric.task.Task;
 import eric.task.TaskList;
 import eric.ui.Ui;
@@ -14,32 +14,15 @@ import eric.ui.Ui;
  */
 public class FindCommand extends Command {
     private static final String SEARCH_PREFIX = "keyword: ";
-    private final String[] keywords;
-    private final LocalDate searchDate;
-    private final boolean isStrict;
-    private final boolean isToDo;
-    private final boolean isDeadLine;
-    private final boolean isEvent;
-    private final boolean isSorted;
+    protected final Query query;
+
     /**
      * Initialises a FindCommand object.
      *
-     * @param keywords The keywords to find for.
-     * @param isStrict Boolean flag to indicate a strict search.
-     * @param isToDo Boolean flag to indicate searching for todo tasks.
-     * @param isDeadLine Boolean flag to indicate searching for deadline tasks.
-     * @param isEvent Boolean flag to indicate searching for event tasks.
-     * @param isSorted Boolean flag to indicated return search results in sorted order.
+     * @param query The search to run.
      */
-    public FindCommand(String[] keywords, LocalDate searchDate, boolean isStrict, boolean isToDo, boolean isDeadLine,
-                       boolean isEvent, boolean isSorted) {
-        this.keywords = keywords;
-        this.isStrict = isStrict;
-        this.isToDo = isToDo;
-        this.isDeadLine = isDeadLine;
-        this.isEvent = isEvent;
-        this.isSorted = isSorted;
-        this.searchDate = searchDate;
+    public FindCommand(Query query) {
+        this.query = query;
     }
 
     /**
@@ -49,11 +32,10 @@ public class FindCommand extends Command {
      */
     @Override
     public String execute(TaskList tasks, Ui ui, Repository repo) throws EricException {
-        ArrayList<Task> results = tasks.findTasksByKeyword(keywords, searchDate, isStrict, isToDo, isDeadLine,
-                isEvent, isSorted);
+        List<Task> results = tasks.findTasks(query);
         assert results != null : "Search results list should be initialised even if it is empty.";
         String searchCriteria = extractSearchCriteria();
-        return ui.displaySearch(results, searchCriteria);
+        return ui.displaySearch(results, searchCriteria, query.getOffset() + 1);
     }
 
     /**
@@ -61,13 +43,50 @@ public class FindCommand extends Command {
      *
      * @return The search result string.
      */
-    private String extractSearchCriteria() {
+    protected String extractSearchCriteria() {
         String keywordsLine = formatKeywords();
         String strictMatch = formatStrictMatchStatus();
         String sortStatus = formatSortStatus();
         String filters = formatFilters();
+        String range = formatRange();
+        String status = formatStatus();
+        String pageLine = formatPage();
+
+        return SEARCH_PREFIX + keywordsLine + strictMatch + sortStatus + filters + range + status + pageLine + "\n";
+    }
+
+    /**
+     * Formats the page of results shown for display.
+     *
+     * @return String stating the page and its size, or an empty string if every result is shown.
+     */
+    private String formatPage() {
+        if (query.getLimit() == Integer.MAX_VALUE) {
+            return "";
+        }
+        int page = query.getOffset() / query.getLimit() + 1;
+        return " (Page " + page + ", up to " + query.getLimit() + " per page)";
+    }
+
+    /**
+     * Formats the status searched for display.
+     *
+     * @return String stating whether only done or undone tasks were searched.
+     */
+    private String formatStatus() {
+        if (query.isDone() == query.isUndone()) {
+            return "";
+        }
+        return query.isDone() ? " (Done only)" : " (Undone only)";
+    }
 
-        return SEARCH_PREFIX + keywordsLine + strictMatch + sortStatus + filters + "\n";
+    /**
+     * Formats the range of dates searched for display.
+     *
+     * @return String stating the range, or an empty string if there is none.
+     */
+    private String formatRange() {
+        return query.getSearchRange() == null ? "" : " between " + query.getSearchRange();
     }
 
     /**
@@ -76,25 +95,34 @@ public class FindCommand extends Command {
      * @return Comma-separated keywords string.
      */
     private String formatKeywords() {
-        return String.join(", ", keywords);
+        return String.join(", ", query.getKeywords());
     }
 
     /**
      * Formats the strict match status for display.
      *
-     * @return String indicating strict or loose matching.
+     * @return String indicating strict, loose or expression matching, and how many typos are allowed.
      */
     private String formatStrictMatchStatus() {
-        return isStrict ? " (All must match strictly) " : " (Loose match) ";
+        if (query.isExpression()) {
+            return " (Expression) ";
+        }
+        int maxEdits = query.getMaxEdits();
+        String typos = maxEdits == 0 ? ""
+                : " (Up to " + maxEdits + (maxEdits == 1 ? " typo" : " typos") + " per keyword)";
+        return (query.isStrict() ? " (All must match strictly)" : " (Loose match)") + typos + " ";
     }
 
     /**
      * Formats the sort status for display.
      *
-     * @return String indicating sorted or unsorted results.
+     * @return String indicating ranked, sorted or unsorted results.
      */
     private String formatSortStatus() {
-        return isSorted ? " (Sorted) " : " (Unsorted) ";
+        if (query.isRanked()) {
+            return " (Ranked) ";
+        }
+        return query.isSorted() ? " (Sorted) " : " (Unsorted) ";
     }
 
 
@@ -105,7 +133,7 @@ public class FindCommand extends Command {
      */
     private String formatFilters() {
         // Guard clause if no filters are set, return empty string
-        if (!isToDo && !isDeadLine && !isEvent) {
+        if (!query.isTodo() && !query.isDeadline() && !query.isEvent()) {
             return "";
         }
 
@@ -119,11 +147,11 @@ public class FindCommand extends Command {
      * @return The filter type name.
      */
     private String determineFilterType() {
-        if (isToDo) {
+        if (query.isTodo()) {
             return "Todos";
-        } else if (isDeadLine) {
+        } else if (query.isDeadline()) {
             return "Deadline";
-        } else if (isEvent) {
+        } else if (query.isEvent()) {
             return "Event";
         }
         return "";
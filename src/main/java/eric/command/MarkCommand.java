@@ -43,12 +43,13 @@ public class MarkCommand extends Command {
     }
     /**
      * Abstracts low-level saving task process.
+     * Marking a task that is already marked changes nothing, so nothing is written.
      *
      * @param tasks The tasks to save.
      * @param repo The repository to save the tasks into.
      * @throws EricException If an error occurs during the saving of the task.
      */
     public void saveTasks(TaskList tasks, Repository repo) throws EricException {
-        repo.save(tasks.getEveryTask());
+        repo.saveChanges(tasks);
     }
 }
@@ -0,0 +1,39 @@
+package eric.command;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import eric.EricException;
+import eric.repository.Repository;
+import eric.task.Task;
+import eric.task.TaskList;
+import eric.ui.Ui;
+
+/**
+ * Represents a command to show the next deadlines from today.
+ */
+public class UpcomingCommand extends Command {
+    private final int count;
+
+    /**
+     * Initialises an UpcomingCommand object.
+     *
+     * @param count The most deadlines to show.
+     */
+    public UpcomingCommand(int count) {
+        assert count > 0 : "The number of upcoming deadlines should be positive.";
+        this.count = count;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Shows the deadlines due from today onwards, soonest first.
+     */
+    @Override
+    public String execute(TaskList tasks, Ui ui, Repository repo) throws EricException {
+        ArrayList<Task> upcoming = tasks.findUpcomingDeadlines(LocalDate.now(), count);
+        assert upcoming.size() <= count : "No more deadlines than requested should be shown.";
+        return ui.displayUpcoming(upcoming);
+    }
+}
@@ -0,0 +1,136 @@
+package eric.parser;
+import java.util.ArrayList;
+import java.util.List;
+
+import eric.EricException;
+import eric.task.KeywordExpression;
+
+/**
+ * Parses the keywords of a search combined with AND, OR, NOT and brackets into a keyword expression.
+ *
+ * <p>Operators are only recognised in upper case, so that "and", "or" and "not" can still be searched
+ * for. NOT binds tightest and OR loosest, and keywords next to each other without an operator must all
+ * match, as if joined by AND.</p>
+ */
+class ExpressionParser {
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+    private static final String OPEN = "(";
+    private static final String CLOSE = ")";
+
+    private final List<String> tokens;
+    private final int maxEdits;
+    private int position;
+
+    private ExpressionParser(List<String> tokens, int maxEdits) {
+        this.tokens = tokens;
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Checks whether the keywords of a search use any operator or bracket.
+     *
+     * @param keywords The keywords of the search, without the command word and flags.
+     * @return True if the keywords should be parsed as an expression.
+     */
+    static boolean isExpression(String keywords) {
+        for (String token : tokenize(keywords)) {
+            if (isOperator(token) || token.equals(OPEN) || token.equals(CLOSE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the keywords of a search into an expression.
+     *
+     * @param keywords The keywords of the search, without the command word and flags.
+     * @param maxEdits The most edits a word may be from a keyword to match it, or 0 to allow no typos.
+     * @return The parsed expression.
+     * @throws EricException If an operator is missing a keyword or the brackets do not match.
+     */
+    static KeywordExpression parse(String keywords, int maxEdits) throws EricException {
+        ExpressionParser parser = new ExpressionParser(tokenize(keywords), maxEdits);
+        KeywordExpression expression = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new EricException("Please check the brackets in your search!");
+        }
+        return expression;
+    }
+
+    private static List<String> tokenize(String keywords) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : keywords.replace(OPEN, " " + OPEN + " ").replace(CLOSE, " " + CLOSE + " ")
+                .trim().split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isOperator(String token) {
+        return token.equals(AND) || token.equals(OR) || token.equals(NOT);
+    }
+
+    private KeywordExpression parseOr() throws EricException {
+        List<KeywordExpression> parts = new ArrayList<>();
+        parts.add(parseAnd());
+        while (accept(OR)) {
+            parts.add(parseAnd());
+        }
+        return KeywordExpression.or(parts);
+    }
+
+    private KeywordExpression parseAnd() throws EricException {
+        List<KeywordExpression> parts = new ArrayList<>();
+        parts.add(parseNot());
+        while (position < tokens.size() && !peek().equals(OR) && !peek().equals(CLOSE)) {
+            accept(AND);
+            parts.add(parseNot());
+        }
+        return KeywordExpression.and(parts);
+    }
+
+    private KeywordExpression parseNot() throws EricException {
+        if (accept(NOT)) {
+            return KeywordExpression.not(parseNot());
+        }
+        return parseKeyword();
+    }
+
+    private KeywordExpression parseKeyword() throws EricException {
+        if (position == tokens.size() || isOperator(peek()) || peek().equals(CLOSE)) {
+            String previous = position == 0 ? "" : tokens.get(position - 1);
+            if (isOperator(previous)) {
+                throw new EricException("Please provide a keyword after " + previous + "!");
+            }
+            if (position < tokens.size() && isOperator(peek())) {
+                throw new EricException("Please provide a keyword before " + peek() + "!");
+            }
+            throw new EricException("Please check the brackets in your search!");
+        }
+        if (accept(OPEN)) {
+            KeywordExpression inner = parseOr();
+            if (!accept(CLOSE)) {
+                throw new EricException("Please check the brackets in your search!");
+            }
+            return inner;
+        }
+        return KeywordExpression.keyword(tokens.get(position++), maxEdits);
+    }
+
+    private String peek() {
+        return tokens.get(position);
+    }
+
+    private boolean accept(String token) {
+        if (position < tokens.size() && peek().equals(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package eric.parser;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import eric.EricException;
 import eric.command.AddDeadlineCommand;
@@ -9,29 +11,45 @@ import eric.command.AddTodoCommand;
 import eric.command.Command;
 import eric.command.DeleteCommand;
 import eric.command.ExitCommand;
+import eric.command.ExplainCommand;
 import eric.command.FindCommand;
 import eric.command.ListCommand;
 import eric.command.MarkCommand;
+import eric.command.UpcomingCommand;
+import eric.task.DateRange;
+import eric.task.Query;
 
 /**
  * Represents main logic for taking care of user inputs and calls the appropriate action.
  */
 public class Parser {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int DEFAULT_MAX_EDITS = 1;
+    private static final int MAX_EDITS_LIMIT = 3;
+    /** The /fuzzy flag followed by a whole number small enough to be the number of typos allowed. */
+    private static final Pattern FUZZY_WITH_EDITS = Pattern.compile("/fuzzy\\s+([1-" + MAX_EDITS_LIMIT + "])\\b");
 
     /**
      * Represents valid command strings supported by Eric
      */
-    private enum CommandType {
-        BYE, TODO, DEADLINE, EVENT, MARK, UNMARK, LIST, DELETE, FINDDATE, FIND, UNKNOWN
+    enum CommandType {
+        BYE, TODO, DEADLINE, EVENT, MARK, UNMARK, LIST, DELETE, FINDDATE, FIND, EXPLAIN, UPCOMING, UNKNOWN
     }
 
     // Find command options
     private boolean isStrict;
+    private int maxEdits;
     private boolean isToDo;
     private boolean isEvent;
     private boolean isDeadLine;
     private boolean isSorted;
+    private boolean isRanked;
+    private boolean isDone;
+    private boolean isUndone;
     private LocalDate searchDate;
+    private DateRange searchRange;
+    private int limit;
+    private int page;
 
     /**
      * Initialises a Parser with default find options.
@@ -45,11 +63,18 @@ public class Parser {
      */
     private void resetFindOptions() {
         this.isStrict = false;
+        this.maxEdits = 0;
         this.isToDo = false;
         this.isEvent = false;
         this.isDeadLine = false;
         this.isSorted = false;
+        this.isRanked = false;
+        this.isDone = false;
+        this.isUndone = false;
         this.searchDate = null;
+        this.searchRange = null;
+        this.limit = Integer.MAX_VALUE;
+        this.page = 1;
     }
 
     /**
@@ -78,7 +103,11 @@ public class Parser {
         case DELETE:
             return new DeleteCommand(userInput);
         case FIND:
-            return configureFind(userInput);
+            return new FindCommand(configureQuery(userInput));
+        case EXPLAIN:
+            return new ExplainCommand(configureQuery(userInput));
+        case UPCOMING:
+            return configureUpcoming(userInput);
         case UNKNOWN:
         default:
             throw new EricException("Sorry, I can't seem to handle your request!");
@@ -101,40 +130,96 @@ public class Parser {
     }
 
     /**
-     * Creates a find command object based on user input and flags.
+     * Creates the query of a find or explain command based on user input and flags.
      *
      * @param input The user input.
-     * @return The find command object.
-     * @throws EricException The keyword or date to search for is missing.
+     * @return The query to search with.
+     * @throws EricException The keyword or date to search for is missing, or the keywords combined with
+     *     AND, OR and NOT cannot be parsed.
      */
-    private Command configureFind(String input) throws EricException {
+    private Query configureQuery(String input) throws EricException {
         extractFindOptions(input);
         String[] keywords = validateAndExtractKeywords(input);
+        int offset = (int) Math.min((long) (page - 1) * limit, Integer.MAX_VALUE);
 
-        return new FindCommand(keywords, searchDate,
-                              isStrict, isToDo,
-                              isDeadLine, isEvent,
-                              isSorted);
+        String cleanInput = cleanInputFlags(input);
+        if (ExpressionParser.isExpression(cleanInput)) {
+            return new Query(ExpressionParser.parse(cleanInput, maxEdits), searchDate, searchRange,
+                             isToDo, isDeadLine, isEvent,
+                             isDone, isUndone,
+                             isSorted, isRanked, offset, limit);
+        }
+        return new Query(keywords, searchDate, searchRange,
+                         isStrict, maxEdits, isToDo,
+                         isDeadLine, isEvent,
+                         isDone, isUndone,
+                         isSorted, isRanked, offset, limit);
+    }
+
+    /**
+     * Creates an upcoming command for the number of deadlines the user asked for.
+     *
+     * @param input The user input.
+     * @return The upcoming command object.
+     * @throws EricException If the number of deadlines is missing or not a positive integer.
+     */
+    private Command configureUpcoming(String input) throws EricException {
+        String[] parts = input.trim().split("\\s+");
+        if (parts.length < 2) {
+            throw new EricException("Please specify how many upcoming deadlines to show!");
+        }
+        try {
+            int count = Integer.parseInt(parts[1]);
+            if (count <= 0) {
+                throw new EricException("The number of upcoming deadlines must be positive!");
+            }
+            return new UpcomingCommand(count);
+        } catch (NumberFormatException e) {
+            throw new EricException("Enter a valid number of upcoming deadlines!");
+        }
     }
 
     /**
      * Extracts and stores find options from user input.
      *
      * @param input The user input containing flags.
-     * @throws EricException If date format is invalid.
+     * @throws EricException If date format is invalid, or both /sort and /rank are given.
      */
     private void extractFindOptions(String input) throws EricException {
         resetFindOptions();
 
         this.isStrict = containsFlag(input, "/all");
+        if (containsFlag(input, "/fuzzy")) {
+            this.maxEdits = parseMaxEdits(input);
+        }
         this.isToDo = containsFlag(input, "/todo");
         this.isEvent = containsFlag(input, "/event");
         this.isDeadLine = containsFlag(input, "/deadline");
         this.isSorted = containsFlag(input, "/sort");
+        this.isRanked = containsFlag(input, "/rank");
+        this.isDone = containsFlag(input, "/done");
+        this.isUndone = containsFlag(input, "/undone");
 
         if (containsFlag(input, "/date")) {
             this.searchDate = parseDateFromInput(input);
         }
+        if (containsFlag(input, "/between")) {
+            this.searchRange = parseDateRangeFromInput(input);
+        }
+        if (isSorted && isRanked) {
+            throw new EricException("Please choose either /sort or /rank, not both!");
+        }
+        if (isRanked) {
+            // Ranked results are shown a page at a time, so that only the best few are ever ordered
+            this.limit = DEFAULT_PAGE_SIZE;
+        }
+        if (containsFlag(input, "/page")) {
+            this.page = parsePositiveNumberAfterFlag(input, "/page");
+            this.limit = DEFAULT_PAGE_SIZE;
+        }
+        if (containsFlag(input, "/limit")) {
+            this.limit = parsePositiveNumberAfterFlag(input, "/limit");
+        }
     }
 
     /**
@@ -158,8 +243,8 @@ public class Parser {
     private String[] validateAndExtractKeywords(String input) throws EricException {
         String cleanInput = cleanInputFlags(input);
 
-        // Allow empty keywords if a date is provided
-        if (cleanInput.isEmpty() && searchDate == null) {
+        // Allow empty keywords if a date or date range is provided
+        if (cleanInput.isEmpty() && searchDate == null && searchRange == null) {
             throw new EricException("Please provide a keyword/date to search for against the task list.");
         }
 
@@ -178,13 +263,44 @@ public class Parser {
      * @return The user input without the flags.
      */
     private static String cleanInputFlags(String input) {
-        return input.replaceFirst("^find\\b", "")
+        String withoutEdits = hasMaxEdits(input) ? FUZZY_WITH_EDITS.matcher(input).replaceFirst("") : input;
+        return removeFlags(withoutEdits);
+    }
+
+    /**
+     * Checks whether a number of typos follows the /fuzzy flag. A number is only taken as the number of
+     * typos if it is between 1 and the most edits allowed and other input is left to search for, so that
+     * a number being searched for, such as a year, stays a keyword.
+     *
+     * @param input The user input.
+     * @return True if the number after the /fuzzy flag is the number of typos allowed.
+     */
+    private static boolean hasMaxEdits(String input) {
+        String withoutEdits = FUZZY_WITH_EDITS.matcher(input).replaceFirst("");
+        return !withoutEdits.equals(input) && !removeFlags(withoutEdits).isEmpty();
+    }
+
+    /**
+     * Removes the command word and the flags from the input, keeping a number after the /fuzzy flag.
+     *
+     * @param input The input to clean.
+     * @return The user input without the flags.
+     */
+    private static String removeFlags(String input) {
+        return input.replaceFirst("^(find|explain)\\b", "")
                 .replaceAll("/date\\s+\\S+", "")
+                .replaceAll("/between(\\s+\\S+){0,2}", "")
+                .replaceAll("/limit\\b(\\s+\\S+)?", "")
+                .replaceAll("/page\\b(\\s+\\S+)?", "")
+                .replaceAll("/fuzzy\\b", "")
                 .replaceAll("\\s+/all\\b", "")
                 .replaceAll("\\s+/todo\\b", "")
                 .replaceAll("\\s+/deadline\\b", "")
                 .replaceAll("\\s+/event\\b", "")
                 .replaceAll("\\s+/sort\\b", "")
+                .replaceAll("\\s+/rank\\b", "")
+                .replaceAll("\\s+/done\\b", "")
+                .replaceAll("\\s+/undone\\b", "")
                 .trim();
     }
 
@@ -211,6 +327,80 @@ public class Parser {
             throw new EricException("Invalid flag detected. Did you mean /deadline, /event, /todo, or /all?");
         }
 
+        return parseSearchDate(dateString);
+    }
+
+    /**
+     * Extracts the start and end dates following the /between flag from the user input.
+     *
+     * @param input The user input to extract the dates from.
+     * @return The range of dates, both included.
+     * @throws EricException The dates are missing, in the wrong format or in the wrong order.
+     */
+    private static DateRange parseDateRangeFromInput(String input) throws EricException {
+        String afterFlag = input.substring(input.indexOf("/between") + "/between".length()).trim();
+        String[] dateStrings = afterFlag.split("\\s+");
+        if (dateStrings.length < 2 || dateStrings[0].startsWith("/") || dateStrings[1].startsWith("/")) {
+            throw new EricException("Please provide a start and end date after the /between flag!");
+        }
+
+        LocalDate start = parseSearchDate(dateStrings[0]);
+        LocalDate end = parseSearchDate(dateStrings[1]);
+        if (start.isAfter(end)) {
+            throw new EricException("The start date of /between must not be after its end date!");
+        }
+        return new DateRange(start, end);
+    }
+
+    /**
+     * Extracts the positive number following a flag from the user input.
+     *
+     * @param input The user input to extract the number from.
+     * @param flag The flag the number follows.
+     * @return The number after the flag.
+     * @throws EricException The number is missing, not an integer or not positive.
+     */
+    private static int parsePositiveNumberAfterFlag(String input, String flag) throws EricException {
+        String afterFlag = input.substring(input.indexOf(flag) + flag.length()).trim();
+        String numberString = afterFlag.split("\\s+")[0];
+        if (numberString.isEmpty() || numberString.startsWith("/")) {
+            throw new EricException("Please provide a number after the " + flag + " flag!");
+        }
+        try {
+            int number = Integer.parseInt(numberString);
+            if (number <= 0) {
+                throw new EricException("The number after the " + flag + " flag must be positive!");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new EricException("Enter a valid number after the " + flag + " flag!");
+        }
+    }
+
+    /**
+     * Extracts the number of typos each keyword allows from the number after the /fuzzy flag, if any.
+     * Any other number after the flag is a keyword.
+     *
+     * @param input The user input to extract the number from.
+     * @return The most edits a word may be from a keyword to match it.
+     */
+    private static int parseMaxEdits(String input) {
+        if (!hasMaxEdits(input)) {
+            return DEFAULT_MAX_EDITS;
+        }
+        Matcher matcher = FUZZY_WITH_EDITS.matcher(input);
+        matcher.find();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * Parses a date to search for.
+     *
+     * @param dateString The date in yyyy-MM-dd format.
+     * @return The LocalDate object for the date string.
+     * @throws EricException The date string is in the wrong format.
+     */
+    private static LocalDate parseSearchDate(String dateString) throws EricException {
         try {
             return LocalDate.parse(dateString);
         } catch (DateTimeParseException e) {
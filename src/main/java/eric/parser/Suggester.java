@@ -0,0 +1,105 @@
+package eric.parser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import eric.task.PrefixTrie;
+
+/**
+ * Suggests how to finish the word being typed: a command word at the start of the input, a flag after a
+ * slash, and otherwise a word from the task descriptions.
+ *
+ * <p>The words are looked up in prefix tries, so a suggestion takes microseconds even with many thousands
+ * of words, and can be made on another thread while the tasks change.</p>
+ */
+public class Suggester {
+    /** The flags understood by the commands, in the order they are usually given. */
+    private static final String[] FLAGS = {
+        "/by", "/from", "/to", "/all", "/fuzzy", "/todo", "/deadline", "/event", "/date", "/between",
+        "/done", "/undone", "/sort", "/rank", "/limit", "/page"
+    };
+
+    private final PrefixTrie commandWords = new PrefixTrie();
+    private final PrefixTrie flags = new PrefixTrie();
+    private final Supplier<PrefixTrie> taskWordsSource;
+    private PrefixTrie taskWords;
+
+    /**
+     * Creates a suggester for the words of a task list.
+     *
+     * @param taskWords The trie of the words in the task descriptions, kept up to date by the list.
+     */
+    public Suggester(PrefixTrie taskWords) {
+        this(() -> taskWords);
+    }
+
+    /**
+     * Creates a suggester that only gets the words of the tasks once a task word is first suggested, as
+     * filling them may read every task. Suggestions are then best made off the FX thread.
+     *
+     * @param taskWords Gets the trie of the words in the task descriptions, kept up to date by the list.
+     */
+    public Suggester(Supplier<PrefixTrie> taskWords) {
+        for (Parser.CommandType command : Parser.CommandType.values()) {
+            // FINDDATE is not handled by the parser, which searches by date with the /date flag of find
+            if (command != Parser.CommandType.UNKNOWN && command != Parser.CommandType.FINDDATE) {
+                commandWords.add(command.name().toLowerCase());
+            }
+        }
+        for (String flag : FLAGS) {
+            flags.add(flag);
+        }
+        this.taskWordsSource = taskWords;
+    }
+
+    /**
+     * Suggests words finishing the last word of the input.
+     *
+     * @param input The input typed so far.
+     * @param count The most suggestions to return.
+     * @return The suggested words in sorted order, leaving out the word typed if it is already whole.
+     */
+    public List<String> suggest(String input, int count) {
+        String word = getLastWord(input).toLowerCase();
+        if (word.isEmpty()) {
+            return List.of();
+        }
+        PrefixTrie words;
+        if (word.startsWith("/")) {
+            words = flags;
+        } else if (word.length() == input.length()) {
+            words = commandWords;
+        } else {
+            words = getTaskWords();
+        }
+        List<String> suggestions = new ArrayList<>(words.complete(word, count + 1));
+        suggestions.remove(word);
+        return suggestions.size() > count ? suggestions.subList(0, count) : suggestions;
+    }
+
+    private PrefixTrie getTaskWords() {
+        if (taskWords == null) {
+            taskWords = taskWordsSource.get();
+        }
+        return taskWords;
+    }
+
+    /**
+     * Replaces the last word of the input with a suggestion.
+     *
+     * @param input The input typed so far.
+     * @param suggestion The suggestion chosen.
+     * @return The input with the last word finished, followed by a space for the next word.
+     */
+    public static String complete(String input, String suggestion) {
+        return input.substring(0, input.length() - getLastWord(input).length()) + suggestion + " ";
+    }
+
+    private static String getLastWord(String input) {
+        int start = input.length();
+        while (start > 0 && !Character.isWhitespace(input.charAt(start - 1))) {
+            start--;
+        }
+        return input.substring(start);
+    }
+}
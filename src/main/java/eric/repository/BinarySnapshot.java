@@ -0,0 +1,362 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import eric.EricException;
+import eric.task.Deadline;
+import eric.task.Event;
+import eric.task.Task;
+import eric.task.TaskChange;
+import eric.task.Todo;
+
+/**
+ * Reads and writes the data file in a compact binary layout.
+ *
+ * <p>The file starts with a header of the magic number, the format version and the task count,
+ * followed by the byte offset of every record. Each record holds the task type, its completion
+ * status, any dates as epoch-day ints and the UTF-8 bytes of its description. Reading goes straight
+ * through a buffer of the file, so no line splitting or date string parsing is needed.</p>
+ */
+public class BinarySnapshot implements Snapshot {
+    /** Leading bytes "ERIC" that identify a binary data file. */
+    public static final int MAGIC = 0x45524943;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final byte TODO_TYPE = 'T';
+    private static final byte DEADLINE_TYPE = 'D';
+    private static final byte EVENT_TYPE = 'E';
+    private static final String CORRUPTED_MESSAGE = "File might be corrupted!";
+
+    @Override
+    public void write(Path path, List<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int count = tasks.size();
+            int[] offsets = new int[count];
+            long position = HEADER_BYTES + (long) count * Integer.BYTES;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+            // Records are written first so that their offsets are known when the header is written
+            channel.position(position);
+            for (int i = 0; i < count; i++) {
+                Task task = tasks.get(i);
+                assert task != null : "Cannot save a null object into the task list.";
+                byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+                int recordBytes = 2 + countDates(task) * Integer.BYTES + Integer.BYTES + description.length;
+                if (buffer.remaining() < recordBytes) {
+                    writeFully(channel, buffer);
+                    buffer = recordBytes > buffer.capacity() ? ByteBuffer.allocate(recordBytes) : buffer;
+                }
+                offsets[i] = toOffset(position);
+                putRecord(buffer, task, description);
+                position += recordBytes;
+            }
+            writeFully(channel, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + count * Integer.BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count);
+            for (int offset : offsets) {
+                header.putInt(offset);
+            }
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Returns the number of epoch-day ints stored for a task.
+     *
+     * @param task The task to be stored.
+     * @return The number of dates the task carries.
+     */
+    private int countDates(Task task) {
+        if (task instanceof Event) {
+            return 2;
+        }
+        return task instanceof Deadline ? 1 : 0;
+    }
+
+    /**
+     * Appends a single task record to the buffer.
+     *
+     * @param buffer The buffer with enough room for the record.
+     * @param task The task to store.
+     * @param description The UTF-8 bytes of the task description.
+     * @throws IOException If a date cannot be stored as an epoch-day int.
+     */
+    private void putRecord(ByteBuffer buffer, Task task, byte[] description) throws IOException {
+        if (task instanceof Deadline) {
+            buffer.put(DEADLINE_TYPE).put(toStatus(task));
+            buffer.putInt(toEpochDay(((Deadline) task).getBy()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            buffer.put(EVENT_TYPE).put(toStatus(task));
+            buffer.putInt(toEpochDay(event.getFrom())).putInt(toEpochDay(event.getTo()));
+        } else {
+            buffer.put(TODO_TYPE).put(toStatus(task));
+        }
+        buffer.putInt(description.length).put(description);
+    }
+
+    private byte toStatus(Task task) {
+        return (byte) (task.isDone() ? 1 : 0);
+    }
+
+    /**
+     * Converts a date into the epoch-day int stored in a record.
+     *
+     * @param date The date to convert.
+     * @return The number of days since 1970-01-01.
+     * @throws IOException If the date is too far from 1970 to fit in an int.
+     */
+    private int toEpochDay(LocalDate date) throws IOException {
+        try {
+            return Math.toIntExact(date.toEpochDay());
+        } catch (ArithmeticException e) {
+            throw new IOException("Date is out of range for the binary format: " + date);
+        }
+    }
+
+    /**
+     * Converts a file position into the int offset stored in the header.
+     *
+     * @param position The file position of a record.
+     * @return The position as an int.
+     * @throws IOException If the file has grown past what a single buffer can address.
+     */
+    private int toOffset(long position) throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Task list is too large for the binary format!");
+        }
+        return (int) position;
+    }
+
+    /**
+     * Writes out everything in the buffer and clears it for reuse.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer holding the pending records.
+     * @throws IOException If the channel cannot be written to.
+     */
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Marking and unmarking only flip the status byte of a record, so a batch of such changes is
+     * written in place. Any add or delete moves the records and needs a full rewrite.
+     */
+    @Override
+    public boolean writeChanges(Path path, List<Task> tasks, List<TaskChange> changes) throws IOException {
+        for (TaskChange change : changes) {
+            if (change.getType() != TaskChange.Type.MARK && change.getType() != TaskChange.Type.UNMARK) {
+                return false;
+            }
+        }
+        if (!Files.exists(path) || SnapshotFormat.detect(path) != SnapshotFormat.BINARY) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.getInt(2 * Integer.BYTES) != tasks.size() || channel.size() > Integer.MAX_VALUE) {
+                return false;
+            }
+            ByteBuffer field = ByteBuffer.allocate(Integer.BYTES);
+            for (TaskChange change : changes) {
+                field.clear();
+                channel.read(field, HEADER_BYTES + (long) change.getIndex() * Integer.BYTES);
+                int statusPosition = field.getInt(0) + 1;
+                if (field.hasRemaining() || statusPosition <= HEADER_BYTES || statusPosition >= channel.size()) {
+                    return false;
+                }
+                channel.write(ByteBuffer.wrap(new byte[] {toStatus(change.getTask())}), statusPosition);
+            }
+            channel.force(false);
+        }
+        return true;
+    }
+
+    @Override
+    public ArrayList<Task> read(Path path) throws EricException {
+        try {
+            ByteBuffer buffer = readFile(path);
+            int count = readHeader(buffer);
+            ArrayList<Task> tasks = new ArrayList<>(count);
+            byte[] scratch = new byte[0];
+            for (int i = 0; i < count; i++) {
+                int offset = recordOffset(buffer, i);
+                int length = recordDescriptionLength(buffer, offset);
+                scratch = length > scratch.length ? new byte[length] : scratch;
+                tasks.add(readRecord(buffer, offset, scratch));
+            }
+            return tasks;
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The record offsets are already in the header, so only the header is validated up front.
+     */
+    @Override
+    public List<Task> readLazily(Path path) throws EricException {
+        try {
+            ByteBuffer buffer = readFile(path);
+            int count = readHeader(buffer);
+            return new LazyTaskList(count, record -> readRecordAt(buffer, record));
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
+
+    /**
+     * Reads the whole data file into memory, without mapping it so that it can still be replaced.
+     *
+     * @param path The data file.
+     * @return The contents of the file.
+     * @throws EricException If the file is too large to be a binary data file.
+     * @throws IOException If the file cannot be read.
+     */
+    private ByteBuffer readFile(Path path) throws EricException, IOException {
+        if (Files.size(path) > Integer.MAX_VALUE) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        return TextSnapshot.readUnmapped(path);
+    }
+
+    /**
+     * Rebuilds the task stored in a single numbered record.
+     *
+     * @param buffer The contents of the file.
+     * @param record The zero-based number of the record.
+     * @return The task stored in the record.
+     * @throws EricException If the record is corrupted.
+     */
+    private Task readRecordAt(ByteBuffer buffer, int record) throws EricException {
+        try {
+            int offset = recordOffset(buffer, record);
+            return readRecord(buffer, offset, new byte[recordDescriptionLength(buffer, offset)]);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+    }
+
+    private int recordOffset(ByteBuffer buffer, int record) {
+        return buffer.getInt(HEADER_BYTES + record * Integer.BYTES);
+    }
+
+    /**
+     * Validates the header and returns the number of records in the file.
+     *
+     * @param buffer The contents of the file.
+     * @return The number of task records.
+     * @throws EricException If the header does not describe a valid binary data file.
+     */
+    private int readHeader(ByteBuffer buffer) throws EricException {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        int count = buffer.getInt(2 * Integer.BYTES);
+        if (count < 0 || HEADER_BYTES + (long) count * Integer.BYTES > buffer.limit()) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the byte length of the description stored in the record at the offset.
+     *
+     * @param buffer The contents of the file.
+     * @param offset The offset of the record.
+     * @return The length of the UTF-8 description.
+     * @throws EricException If the record type is invalid, or the description does not fit in the file.
+     */
+    private int recordDescriptionLength(ByteBuffer buffer, int offset) throws EricException {
+        int lengthPosition = descriptionPosition(buffer, offset);
+        int length = buffer.getInt(lengthPosition);
+        if (length < 0 || (long) lengthPosition + Integer.BYTES + length > buffer.limit()) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        return length;
+    }
+
+    /**
+     * Returns the position of the description length field of the record at the offset.
+     *
+     * @param buffer The contents of the file.
+     * @param offset The offset of the record.
+     * @return The position just after the record's dates.
+     * @throws EricException If the record type is unknown.
+     */
+    private int descriptionPosition(ByteBuffer buffer, int offset) throws EricException {
+        switch (buffer.get(offset)) {
+        case TODO_TYPE:
+            return offset + 2;
+        case DEADLINE_TYPE:
+            return offset + 2 + Integer.BYTES;
+        case EVENT_TYPE:
+            return offset + 2 + 2 * Integer.BYTES;
+        default:
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+    }
+
+    /**
+     * Rebuilds the task stored in the record at the offset.
+     *
+     * @param buffer The contents of the file.
+     * @param offset The offset of the record.
+     * @param scratch A reusable array large enough to hold the description bytes.
+     * @return The task stored in the record.
+     * @throws EricException If the record holds invalid dates.
+     */
+    private Task readRecord(ByteBuffer buffer, int offset, byte[] scratch) throws EricException {
+        int lengthPosition = descriptionPosition(buffer, offset);
+        int length = buffer.getInt(lengthPosition);
+        buffer.get(lengthPosition + Integer.BYTES, scratch, 0, length);
+        String description = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+        Task task;
+        switch (buffer.get(offset)) {
+        case DEADLINE_TYPE:
+            task = new Deadline(description, LocalDate.ofEpochDay(buffer.getInt(offset + 2)));
+            break;
+        case EVENT_TYPE:
+            task = new Event(description, LocalDate.ofEpochDay(buffer.getInt(offset + 2)),
+                    LocalDate.ofEpochDay(buffer.getInt(offset + 2 + Integer.BYTES)));
+            break;
+        default:
+            task = new Todo(description);
+            break;
+        }
+        if (buffer.get(offset + 1) == 1) {
+            task.markDone();
+        }
+        return task;
+    }
+}
@@ -0,0 +1,280 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import eric.EricException;
+import eric.task.Task;
+import eric.task.TaskCodec;
+
+/**
+ * Reads and writes the text data file with a CRC32 checksum in front of every task line.
+ *
+ * <p>The file starts with a {@link #HEADER} line, followed by one {@code <checksum> | <task line>}
+ * line per task. A line whose checksum does not match is known to be damaged, so it is set aside in a
+ * {@link Quarantine} while every other task is still loaded. Lines without a checksum, such as those
+ * added by hand, are accepted as long as they can be parsed. The file is always UTF-8, so that the
+ * checksums do not depend on the platform's default charset.</p>
+ */
+public class ChecksummedSnapshot implements Snapshot {
+    /** First line of a checksummed data file. */
+    public static final String HEADER = "#CRC32 | eric | 1";
+    private static final String CORRUPTED_MESSAGE = "File might be corrupted!";
+    private static final byte[] DELIMITER = " | ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHECKSUM_DIGITS = 8;
+    private static final int PREFIX_BYTES = CHECKSUM_DIGITS + 3;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * {@inheritDoc}
+     *
+     * The checksum covers the bytes of the task line as they are stored in the file.
+     */
+    @Override
+    public void write(Path path, List<Task> tasks) throws IOException {
+        Charset charset = StandardCharsets.UTF_8;
+        CharsetEncoder encoder = charset.newEncoder();
+        byte[] separator = System.lineSeparator().getBytes(charset);
+        TaskCodec codec = new TaskCodec();
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.put(HEADER.getBytes(charset)).put(separator);
+            for (Task task : tasks) {
+                assert task != null : "Cannot save a null object into the task list.";
+                ByteBuffer line = encoder.encode(CharBuffer.wrap(codec.encode(task)));
+                crc.reset();
+                crc.update(line.duplicate());
+                int recordBytes = PREFIX_BYTES + line.remaining() + separator.length;
+                if (buffer.remaining() < recordBytes) {
+                    writeFully(channel, buffer);
+                    buffer = recordBytes > buffer.capacity() ? ByteBuffer.allocate(recordBytes) : buffer;
+                }
+                putChecksum(buffer, crc.getValue());
+                buffer.put(DELIMITER).put(line).put(separator);
+            }
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    private void putChecksum(ByteBuffer buffer, long checksum) {
+        for (int shift = 4 * (CHECKSUM_DIGITS - 1); shift >= 0; shift -= 4) {
+            buffer.put(HEX_DIGITS[(int) (checksum >>> shift) & 0xF]);
+        }
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Any damaged line is reported with its line number.
+     */
+    @Override
+    public ArrayList<Task> read(Path path) throws EricException {
+        return read(path, null);
+    }
+
+    @Override
+    public ArrayList<Task> read(Path path, Quarantine quarantine) throws EricException {
+        Lines lines = indexVerifiedLines(path, quarantine);
+        ArrayList<Task> tasks = new ArrayList<>(lines.count);
+        for (int i = 0; i < lines.count; i++) {
+            try {
+                tasks.add(lines.parse(i));
+            } catch (EricException e) {
+                if (quarantine == null) {
+                    throw e;
+                }
+                quarantine.add(lines.text(i));
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public List<Task> readLazily(Path path) throws EricException {
+        return readLazily(path, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Every checksum is verified up front, which only needs the raw bytes, while parsing is
+     * left until each task is first accessed.
+     */
+    @Override
+    public List<Task> readLazily(Path path, Quarantine quarantine) throws EricException {
+        Lines lines = indexVerifiedLines(path, quarantine);
+        return new LazyTaskList(lines.count, lines::parse);
+    }
+
+    /**
+     * Reads the file and finds every line whose checksum matches, or that has no checksum. With a
+     * quarantine, a line without a checksum is only kept if it can be parsed.
+     *
+     * @param path The data file.
+     * @param quarantine Where damaged lines are set aside, or null to reject the file instead.
+     * @return The lines holding tasks.
+     * @throws EricException If the header is missing, or a line is damaged and there is no quarantine.
+     */
+    private Lines indexVerifiedLines(Path path, Quarantine quarantine) throws EricException {
+        ByteBuffer buffer;
+        try {
+            if (Files.size(path) > Integer.MAX_VALUE) {
+                throw new EricException(CORRUPTED_MESSAGE);
+            }
+            buffer = TextSnapshot.readUnmapped(path);
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+        int[] lineBounds = TextSnapshot.indexLines(buffer);
+        stripCarriageReturns(buffer, lineBounds);
+        int lineCount = TextSnapshot.countLinesBeforeTrailingBlanks(buffer, lineBounds);
+        Lines lines = new Lines(buffer, lineCount);
+        if (lineCount == 0 || !HEADER.equals(lines.decode(lineBounds[0], lineBounds[1]))) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+
+        CRC32 crc = new CRC32();
+        for (int line = 1; line < lineCount; line++) {
+            int start = lineBounds[2 * line];
+            int end = lineBounds[2 * line + 1];
+            if (hasChecksum(buffer, start, end)) {
+                if (checksumMatches(buffer, start, end, crc)) {
+                    lines.add(start + PREFIX_BYTES, end, line + 1);
+                    continue;
+                }
+            } else if (!TextSnapshot.isBlank(buffer, start, end)
+                    && (quarantine == null || isTask(lines, start, end))) {
+                lines.add(start, end, line + 1);
+                continue;
+            }
+            if (quarantine == null) {
+                throw TextSnapshot.corruptedAt(CORRUPTED_MESSAGE, line + 1);
+            }
+            quarantine.add(lines.decode(start, end));
+        }
+        return lines;
+    }
+
+    /**
+     * Checks whether a line without a checksum can be parsed. Nothing else vouches for such a line, so it
+     * is parsed up front to be set aside on load, even when the tasks are otherwise parsed lazily.
+     */
+    private boolean isTask(Lines lines, int start, int end) {
+        try {
+            Task.fileToTask(lines.decode(start, end));
+            return true;
+        } catch (EricException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the end of every line before its carriage return, if it has one.
+     *
+     * @param buffer The contents of the file.
+     * @param lineBounds The start and end offset of every line.
+     */
+    private void stripCarriageReturns(ByteBuffer buffer, int[] lineBounds) {
+        for (int i = 0; i < lineBounds.length; i += 2) {
+            if (lineBounds[i + 1] > lineBounds[i] && buffer.get(lineBounds[i + 1] - 1) == '\r') {
+                lineBounds[i + 1]--;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a line starts with a checksum. Task lines start with a single letter,
+     * so they can never be mistaken for one.
+     */
+    private boolean hasChecksum(ByteBuffer buffer, int start, int end) {
+        if (end - start < PREFIX_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < CHECKSUM_DIGITS; i++) {
+            if (Character.digit(buffer.get(start + i), 16) < 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < DELIMITER.length; i++) {
+            if (buffer.get(start + CHECKSUM_DIGITS + i) != DELIMITER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean checksumMatches(ByteBuffer buffer, int start, int end, CRC32 crc) {
+        long expected = 0;
+        for (int i = 0; i < CHECKSUM_DIGITS; i++) {
+            expected = (expected << 4) | Character.digit(buffer.get(start + i), 16);
+        }
+        crc.reset();
+        crc.update(buffer.slice(start + PREFIX_BYTES, end - start - PREFIX_BYTES));
+        return crc.getValue() == expected;
+    }
+
+    /**
+     * Holds the byte range and line number of every task line that passed its checksum.
+     */
+    private static class Lines {
+        private final ByteBuffer buffer;
+        private int[] bounds;
+        private int count;
+
+        Lines(ByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.bounds = new int[3 * Math.max(capacity, 1)];
+        }
+
+        void add(int start, int end, int lineNumber) {
+            if (3 * count + 3 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[3 * count] = start;
+            bounds[3 * count + 1] = end;
+            bounds[3 * count + 2] = lineNumber;
+            count++;
+        }
+
+        String decode(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String text(int record) {
+            return decode(bounds[3 * record], bounds[3 * record + 1]);
+        }
+
+        Task parse(int record) throws EricException {
+            try {
+                return Task.fileToTask(text(record));
+            } catch (EricException e) {
+                throw TextSnapshot.corruptedAt(e.getMessage(), bounds[3 * record + 2]);
+            }
+        }
+    }
+}
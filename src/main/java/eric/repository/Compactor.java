@@ -0,0 +1,218 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import eric.EricException;
+import eric.task.Task;
+
+/**
+ * Folds the journal back into the data file on a background thread once it grows too large.
+ *
+ * <p>The journal is first renamed aside so new changes keep going to a fresh journal. The background
+ * thread then replays the renamed journal on top of the data file into a temporary snapshot, marks the
+ * renamed journal as done and moves the snapshot into place. {@link #recover()} finishes or redoes any
+ * compaction that was interrupted, so startup only has to read the data file and a short journal.</p>
+ */
+public class Compactor {
+    private static final int DEFAULT_MAX_RECORDS = 1000;
+    private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String DONE_SUFFIX = ".done";
+
+    private final Path snapshotPath;
+    private final SnapshotFile snapshotFile;
+    private final Path compactingPath;
+    private final Path donePath;
+    private final Journal journal;
+    private final Snapshot snapshot;
+    private final int maxRecords;
+    private final long maxBytes;
+    private ExecutorService executor;
+    private Future<?> pending;
+
+    /**
+     * Initialises a compactor with the default journal size limits.
+     *
+     * @param snapshotPath The data file holding the last snapshot.
+     * @param journal The journal of changes made since that snapshot.
+     * @param format The format new snapshots are written in.
+     */
+    public Compactor(Path snapshotPath, Journal journal, SnapshotFormat format) {
+        this(snapshotPath, journal, format, DEFAULT_MAX_RECORDS, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Initialises a compactor that triggers once the journal holds too many records or bytes.
+     *
+     * @param snapshotPath The data file holding the last snapshot.
+     * @param journal The journal of changes made since that snapshot.
+     * @param format The format new snapshots are written in.
+     * @param maxRecords The number of journal records that triggers a compaction.
+     * @param maxBytes The journal size in bytes that triggers a compaction.
+     */
+    public Compactor(Path snapshotPath, Journal journal, SnapshotFormat format, int maxRecords, long maxBytes) {
+        this.snapshotPath = snapshotPath;
+        this.snapshot = format.getSnapshot();
+        this.snapshotFile = new SnapshotFile(snapshotPath);
+        this.compactingPath = Paths.get(journal.getPath() + COMPACTING_SUFFIX);
+        this.donePath = Paths.get(journal.getPath() + DONE_SUFFIX);
+        this.journal = journal;
+        this.maxRecords = maxRecords;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Checks whether the journal has grown past either limit.
+     *
+     * @return True if a compaction should be started.
+     */
+    public boolean shouldCompact() {
+        return journal.getRecordCount() >= maxRecords || journal.getByteCount() >= maxBytes;
+    }
+
+    /**
+     * Checks whether a background compaction has been started and not yet finished.
+     *
+     * @return True if a compaction is still running.
+     */
+    public synchronized boolean isRunning() {
+        return pending != null && !pending.isDone();
+    }
+
+    /**
+     * Rotates the journal and compacts the rotated records on the background thread.
+     * Does nothing if a compaction is already running.
+     *
+     * @throws IOException If the journal cannot be rotated.
+     */
+    public synchronized void compactInBackground() throws IOException {
+        if (isRunning()) {
+            return;
+        }
+        // A leftover from a failed compaction is retried before more records are rotated in
+        if (!Files.exists(compactingPath)) {
+            journal.rotateTo(compactingPath);
+        }
+        pending = getExecutor().submit(() -> {
+            compact();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for any running compaction to finish.
+     *
+     * @throws EricException If the compaction failed or the wait was interrupted.
+     */
+    public void awaitIdle() throws EricException {
+        Future<?> running;
+        synchronized (this) {
+            running = pending;
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            running.get();
+        } catch (ExecutionException e) {
+            // The rotated journal is left in place, so the next recovery retries it
+            throw new EricException("Met with error while compacting the journal!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EricException("Interrupted while compacting the journal!");
+        } finally {
+            synchronized (this) {
+                if (pending == running && running.isDone()) {
+                    pending = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the data file with the given tasks and empties the journal, using the same
+     * steps as a compaction so that an interrupted save is finished by {@link #recover()}.
+     *
+     * @param tasks Every task in the list.
+     * @throws EricException If the snapshot cannot be written.
+     */
+    public void replaceSnapshot(List<Task> tasks) throws EricException {
+        awaitIdle();
+        recover();
+        try {
+            snapshotFile.writeTemp(snapshot, tasks);
+            journal.rotateTo(donePath);
+            snapshotFile.commitTemp();
+            Files.delete(donePath);
+        } catch (IOException e) {
+            throw new EricException("Met with error while trying to save!");
+        }
+    }
+
+    /**
+     * Finishes a compaction that was interrupted part way, so that only the data file
+     * and the live journal remain.
+     *
+     * @throws EricException If the files left behind are corrupted or cannot be read.
+     */
+    public void recover() throws EricException {
+        try {
+            if (Files.exists(donePath)) {
+                // The temporary snapshot already holds the done records, it only needs to be moved in
+                if (snapshotFile.hasTemp()) {
+                    snapshotFile.commitTemp();
+                }
+                Files.delete(donePath);
+            }
+            snapshotFile.recover();
+            if (Files.exists(compactingPath)) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new EricException("Met with error while recovering the journal!");
+        }
+    }
+
+    /**
+     * Replays the rotated journal on top of the data file and replaces the data file with the result.
+     *
+     * @throws IOException If any of the files cannot be written or moved.
+     * @throws EricException If the data file or rotated journal is corrupted.
+     */
+    private void compact() throws IOException, EricException {
+        ArrayList<Task> tasks = Files.exists(snapshotPath)
+                ? SnapshotFormat.detect(snapshotPath).getSnapshot().read(snapshotPath)
+                : new ArrayList<>();
+        new Journal(compactingPath).replay(tasks);
+        snapshotFile.writeTemp(snapshot, tasks);
+
+        // Once renamed to done, the rotated records are owned by the temporary snapshot
+        SnapshotFile.moveAtomically(compactingPath, donePath);
+        snapshotFile.commitTemp();
+        Files.delete(donePath);
+    }
+
+    /**
+     * Returns the background thread used for compaction, creating it on first use.
+     *
+     * @return The single-threaded compaction executor.
+     */
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "eric-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,13 @@
+package eric.repository;
+
+/**
+ * Represents how soon saved changes are forced out of the operating system's buffers onto the disk.
+ */
+public enum Durability {
+    /** Every group of changes is forced to disk as soon as it is written. */
+    FSYNC,
+    /** Changes are gathered for a short period, then written and forced to disk together. */
+    PERIODIC,
+    /** Changes are written straight away and left to the operating system to put on disk. */
+    OS_BUFFERED
+}
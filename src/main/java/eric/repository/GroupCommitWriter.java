@@ -0,0 +1,219 @@
+package eric.repository;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import eric.EricException;
+
+/**
+ * Writes journal records behind the commands that produce them, on a single dedicated thread.
+ *
+ * <p>Records submitted while the thread is busy writing are gathered into the next write, so a burst
+ * of changes costs one write and, depending on the {@link Durability}, one fsync. A failed write is
+ * kept and retried, and the failure is reported to the next caller to submit or flush.</p>
+ */
+public class GroupCommitWriter {
+    private static final long DEFAULT_PERIOD_MILLIS = 1000;
+    private static final String SAVE_ERROR_MESSAGE = "Met with error while trying to save!";
+
+    /**
+     * Writes a group of records to storage.
+     */
+    public interface BatchSink {
+        /**
+         * Appends a group of records in a single step, keeping none of them if it fails.
+         *
+         * @param records The records, each ending with a line separator.
+         * @param count The number of records.
+         * @throws IOException If the records cannot be written.
+         */
+        void write(String records, int count) throws IOException;
+
+        /**
+         * Finishes the records written so far, such as by forcing them to disk. A failure is retried
+         * without writing the records again, since they are already in storage.
+         *
+         * @param isForced Whether the records must be forced to disk before returning.
+         * @throws IOException If the records cannot be finished.
+         */
+        void finish(boolean isForced) throws IOException;
+    }
+
+    private final BatchSink sink;
+    private final Durability durability;
+    private final long periodNanos;
+    private final Object lock = new Object();
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingCount;
+    private long pendingSince;
+    private long submitted;
+    private long written;
+    private long committed;
+    private long flushTarget;
+    private Exception failure;
+    private Thread thread;
+
+    /**
+     * Initialises a writer that gathers periodic writes for one second.
+     *
+     * @param sink Where the records are written.
+     * @param durability How soon written records are forced to disk.
+     */
+    public GroupCommitWriter(BatchSink sink, Durability durability) {
+        this(sink, durability, DEFAULT_PERIOD_MILLIS);
+    }
+
+    /**
+     * Initialises a writer with the given period for {@link Durability#PERIODIC} writes.
+     *
+     * @param sink Where the records are written.
+     * @param durability How soon written records are forced to disk.
+     * @param periodMillis How long periodic writes wait for more records to arrive.
+     */
+    public GroupCommitWriter(BatchSink sink, Durability durability, long periodMillis) {
+        this.sink = sink;
+        this.durability = durability;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+    }
+
+    /**
+     * Queues records to be written by the writer thread and returns without waiting for them.
+     *
+     * @param records The records, each ending with a line separator.
+     * @param count The number of records.
+     * @throws EricException If an earlier write failed. The records given are then not queued.
+     */
+    public void submit(String records, int count) throws EricException {
+        synchronized (lock) {
+            throwIfFailed();
+            if (pendingCount == 0) {
+                pendingSince = System.nanoTime();
+            }
+            pending.append(records);
+            pendingCount += count;
+            submitted++;
+            startIfNeeded();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until every record submitted so far has been written, and forced to disk unless the
+     * durability is {@link Durability#OS_BUFFERED}.
+     *
+     * @throws EricException If a write failed or the wait was interrupted.
+     */
+    public void flush() throws EricException {
+        synchronized (lock) {
+            throwIfFailed();
+            flushTarget = Math.max(flushTarget, submitted);
+            lock.notifyAll();
+            try {
+                while (committed < flushTarget && failure == null) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EricException(SAVE_ERROR_MESSAGE);
+            }
+            throwIfFailed();
+        }
+    }
+
+    /**
+     * Reports a failed write once, letting the writer thread retry it afterwards.
+     *
+     * @throws EricException If a write failed since the last report.
+     */
+    private void throwIfFailed() throws EricException {
+        if (failure != null) {
+            failure = null;
+            lock.notifyAll();
+            throw new EricException(SAVE_ERROR_MESSAGE);
+        }
+    }
+
+    private void startIfNeeded() {
+        if (thread == null) {
+            thread = new Thread(this::run, "eric-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Writes gathered records for as long as the application runs. Records that failed to be written
+     * are put back in front of the queue, while records that were written but failed to be finished
+     * are only finished again.
+     */
+    private void run() {
+        while (true) {
+            String records;
+            int count;
+            long upTo;
+            synchronized (lock) {
+                try {
+                    waitUntilReadyToWrite();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                records = pending.toString();
+                count = pendingCount;
+                upTo = submitted;
+                pending.setLength(0);
+                pendingCount = 0;
+            }
+            try {
+                if (count > 0) {
+                    sink.write(records, count);
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (lock) {
+                    pending.insert(0, records);
+                    pendingCount += count;
+                    failure = e;
+                    lock.notifyAll();
+                }
+                continue;
+            }
+            synchronized (lock) {
+                written = upTo;
+            }
+            try {
+                sink.finish(durability != Durability.OS_BUFFERED);
+                synchronized (lock) {
+                    committed = upTo;
+                    lock.notifyAll();
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocks until there are records to write or finish and, for periodic writes, their period is up or a
+     * flush was requested. Nothing is written while a failure is waiting to be reported.
+     *
+     * @throws InterruptedException If the writer thread is interrupted.
+     */
+    private void waitUntilReadyToWrite() throws InterruptedException {
+        while (true) {
+            if (failure != null || (pendingCount == 0 && committed == written)) {
+                lock.wait();
+                continue;
+            }
+            if (pendingCount == 0) {
+                // Only records that were written but not finished are left, after their failure was reported
+                return;
+            }
+            long remaining = pendingSince + periodNanos - System.nanoTime();
+            if (durability != Durability.PERIODIC || flushTarget > committed || remaining <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package eric.repository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import eric.EricException;
+import eric.task.Task;
+import eric.task.TaskChange;
+
+/**
+ * Manages an append-only log of task list changes kept next to the data file.
+ * Each line records a single add, mark, unmark or delete so that a change costs
+ * the same to persist no matter how many tasks are stored.
+ */
+public class Journal {
+    private static final String ADD_RECORD = "A";
+    private static final String MARK_RECORD = "M";
+    private static final String UNMARK_RECORD = "U";
+    private static final String DELETE_RECORD = "X";
+    private static final String DELIMITER = " | ";
+    private static final String CORRUPTED_MESSAGE = "Journal might be corrupted!";
+    private static final int TAIL_READ_SIZE = 4096;
+
+    private final Path path;
+    private int recordCount;
+    private long byteCount;
+
+    /**
+     * Initialises a journal backed by the given file.
+     *
+     * @param path The path of the journal file.
+     */
+    public Journal(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the journal records for the changes, so that they can be appended later.
+     *
+     * @param changes The changes to record.
+     * @return The records, each ending with a line separator.
+     */
+    public String formatRecords(List<TaskChange> changes) {
+        StringBuilder records = new StringBuilder();
+        for (TaskChange change : changes) {
+            records.append(toRecord(change)).append(System.lineSeparator());
+        }
+        return records.toString();
+    }
+
+    /**
+     * Returns the journal record for a single change.
+     *
+     * @param change The change to record.
+     * @return The record, without a line separator.
+     */
+    private String toRecord(TaskChange change) {
+        switch (change.getType()) {
+        case ADD:
+            return ADD_RECORD + DELIMITER + change.getTask().toFileFormat();
+        case MARK:
+            return MARK_RECORD + DELIMITER + change.getIndex();
+        case UNMARK:
+            return UNMARK_RECORD + DELIMITER + change.getIndex();
+        default:
+            return DELETE_RECORD + DELIMITER + change.getIndex();
+        }
+    }
+
+    /**
+     * Appends records that were already formatted with a single write.
+     *
+     * @param records The records, each ending with a line separator.
+     * @param count The number of records.
+     * @throws IOException If the records cannot be written.
+     */
+    public void appendRecords(String records, int count) throws IOException {
+        byte[] bytes = records.getBytes();
+        long length = Files.exists(path) ? Files.size(path) : 0;
+        try {
+            Files.write(path, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // Drop whatever part of the records was written, so that the next append starts on a new line
+            truncate(length);
+            throw e;
+        }
+        recordCount += count;
+        byteCount += bytes.length;
+    }
+
+    /**
+     * Cuts the journal back to a length, if it has grown past it.
+     *
+     * @param length The length to keep, in bytes.
+     * @throws IOException If the journal cannot be truncated.
+     */
+    private void truncate(long length) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > length) {
+                channel.truncate(length);
+            }
+        }
+    }
+
+    /**
+     * Finds the length of the journal up to and including the line separator of its last complete line.
+     *
+     * @return The length of the complete lines, in bytes.
+     * @throws IOException If the journal cannot be read.
+     */
+    private long findCompleteLength() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAIL_READ_SIZE);
+            long end = channel.size();
+            while (end > 0) {
+                long start = Math.max(0, end - TAIL_READ_SIZE);
+                buffer.clear().limit((int) (end - start));
+                int read = 0;
+                while (read >= 0 && buffer.hasRemaining()) {
+                    read = channel.read(buffer, start + buffer.position());
+                }
+                for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Forces every record written so far out of the operating system's buffers onto the disk.
+     *
+     * @throws IOException If the journal cannot be synced.
+     */
+    public void sync() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Applies every journaled change, in order, on top of the given tasks.
+     * A last line without a line separator is a torn write, which is cut from the journal so that the
+     * next record starts on a line of its own. A record on the last line that cannot be read is skipped.
+     *
+     * @param tasks The tasks loaded from the last snapshot.
+     * @throws EricException If a record in the journal is corrupted or cannot be read.
+     */
+    public void replay(List<Task> tasks) throws EricException {
+        recordCount = 0;
+        byteCount = 0;
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            long completeLength = findCompleteLength();
+            if (completeLength < Files.size(path)) {
+                // The last record was cut off before its line separator, so later records would join it
+                truncate(completeLength);
+            }
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the journal!");
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, Charset.defaultCharset())) {
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                boolean isLastLine = next == null;
+                applyRecord(tasks, line, isLastLine);
+                recordCount++;
+                line = next;
+            }
+            byteCount = Files.size(path);
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the journal!");
+        }
+    }
+
+    /**
+     * Applies a single journal record to the tasks.
+     *
+     * @param tasks The tasks to update.
+     * @param line The journal record.
+     * @param isLastLine Whether the record is the last one in the journal.
+     * @throws EricException If the record is corrupted and is not the last line.
+     */
+    private void applyRecord(List<Task> tasks, String line, boolean isLastLine) throws EricException {
+        if (line.trim().isEmpty()) {
+            return;
+        }
+        try {
+            applyParsedRecord(tasks, line);
+        } catch (EricException | IllegalArgumentException e) {
+            if (!isLastLine) {
+                throw new EricException(CORRUPTED_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Parses and applies a non-empty journal record.
+     *
+     * @param tasks The tasks to update.
+     * @param line The journal record.
+     * @throws EricException If the record type or its task is invalid.
+     */
+    private void applyParsedRecord(List<Task> tasks, String line) throws EricException {
+        int split = line.indexOf(DELIMITER);
+        if (split == -1) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        String recordType = line.substring(0, split);
+        String payload = line.substring(split + DELIMITER.length());
+
+        switch (recordType) {
+        case ADD_RECORD:
+            tasks.add(Task.fileToTask(payload));
+            break;
+        case MARK_RECORD:
+            tasks.get(parseIndex(payload, tasks.size())).markDone();
+            break;
+        case UNMARK_RECORD:
+            tasks.get(parseIndex(payload, tasks.size())).markUndone();
+            break;
+        case DELETE_RECORD:
+            tasks.remove(parseIndex(payload, tasks.size()));
+            break;
+        default:
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+    }
+
+    /**
+     * Parses the task position stored in a record.
+     *
+     * @param payload The record payload holding the position.
+     * @param size The current number of tasks.
+     * @return The zero-based task position.
+     * @throws EricException If the position is not within the task list.
+     */
+    private int parseIndex(String payload, int size) throws EricException {
+        int index = Integer.parseInt(payload.trim());
+        if (index < 0 || index >= size) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        return index;
+    }
+
+    /**
+     * Moves every record so far to another file in a single step, leaving the journal empty.
+     *
+     * @param target The file to move the records to.
+     * @throws IOException If the journal cannot be moved.
+     */
+    public void rotateTo(Path target) throws IOException {
+        if (Files.exists(path)) {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.createFile(target);
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Removes every record from the journal.
+     *
+     * @throws IOException If the journal file cannot be removed.
+     */
+    public void clear() throws IOException {
+        Files.deleteIfExists(path);
+        recordCount = 0;
+        byteCount = 0;
+    }
+}
@@ -0,0 +1,153 @@
+package eric.repository;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import eric.EricException;
+import eric.task.Task;
+
+/**
+ * Represents a list of tasks loaded from the data file where each task is only rebuilt from
+ * its record the first time it is accessed. Only the record boundaries are known up front,
+ * so startup time and memory grow with the tasks a session actually touches.
+ */
+public class LazyTaskList extends AbstractList<Task> implements RandomAccess {
+    private static final int NO_RECORD = -1;
+
+    /**
+     * Rebuilds the task stored in a single record of the data file.
+     */
+    public interface RecordReader {
+        /**
+         * Reads the record with the given number.
+         *
+         * @param record The zero-based number of the record in the data file.
+         * @return The task stored in the record.
+         * @throws EricException If the record is corrupted.
+         */
+        Task read(int record) throws EricException;
+    }
+
+    private RecordReader reader;
+    private Task[] tasks;
+    private int[] records;
+    private int size;
+    private int unreadCount;
+
+    /**
+     * Initialises a list backed by the given number of unread records.
+     *
+     * @param recordCount The number of records in the data file.
+     * @param reader The reader used to rebuild a task from its record.
+     */
+    public LazyTaskList(int recordCount, RecordReader reader) {
+        this.reader = reader;
+        this.tasks = new Task[recordCount];
+        this.records = new int[recordCount];
+        for (int i = 0; i < recordCount; i++) {
+            records[i] = i;
+        }
+        this.size = recordCount;
+        this.unreadCount = recordCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Rebuilds the task from its record if it has not been accessed before.
+     *
+     * @throws IllegalStateException If the record of the task is corrupted.
+     */
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        if (tasks[index] == null) {
+            tasks[index] = readRecord(records[index]);
+            records[index] = NO_RECORD;
+            releaseReaderIfDone();
+        }
+        return tasks[index];
+    }
+
+    /**
+     * Reads a record, reporting corruption as an unchecked exception since list access cannot throw.
+     *
+     * @param record The record to read.
+     * @return The task stored in the record.
+     */
+    private Task readRecord(int record) {
+        try {
+            Task task = reader.read(record);
+            assert task != null : "A record should always hold a task.";
+            return task;
+        } catch (EricException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Counts one more record as read and drops the reader, along with the contents of the data file,
+     * once every record has been read.
+     */
+    private void releaseReaderIfDone() {
+        unreadCount--;
+        if (unreadCount == 0) {
+            reader = null;
+        }
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        tasks[index] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        assert task != null : "Cannot add a null task to the list.";
+        if (size == tasks.length) {
+            int capacity = Math.max(10, size + (size >> 1));
+            tasks = Arrays.copyOf(tasks, capacity);
+            records = Arrays.copyOf(records, capacity);
+        }
+        System.arraycopy(tasks, index, tasks, index + 1, size - index);
+        System.arraycopy(records, index, records, index + 1, size - index);
+        tasks[index] = task;
+        records[index] = NO_RECORD;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A task that was never accessed is only rebuilt so that it can be returned.
+     */
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        System.arraycopy(tasks, index + 1, tasks, index, size - index - 1);
+        System.arraycopy(records, index + 1, records, index, size - index - 1);
+        size--;
+        tasks[size] = null;
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of tasks still waiting to be rebuilt from their records.
+     *
+     * @return The number of unread records in the list.
+     */
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+}
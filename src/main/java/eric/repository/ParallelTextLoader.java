@@ -0,0 +1,272 @@
+package eric.repository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import eric.EricException;
+import eric.task.Task;
+
+/**
+ * Loads a large plain-text data file by splitting it into newline-aligned byte ranges that are
+ * parsed in parallel on the fork-join pool and then joined back in file order.
+ */
+public class ParallelTextLoader {
+    private static final long DEFAULT_MIN_CHUNK_BYTES = 4 * 1024 * 1024;
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+
+    private final long minChunkBytes;
+
+    /**
+     * Initialises a loader that gives each thread at least a few megabytes to parse.
+     */
+    public ParallelTextLoader() {
+        this(DEFAULT_MIN_CHUNK_BYTES);
+    }
+
+    /**
+     * Initialises a loader with the given smallest byte range worth parsing on its own thread.
+     *
+     * @param minChunkBytes The smallest number of bytes given to a single chunk.
+     */
+    public ParallelTextLoader(long minChunkBytes) {
+        assert minChunkBytes > 0 : "Chunks must hold at least one byte.";
+        this.minChunkBytes = minChunkBytes;
+    }
+
+    /**
+     * Holds the tasks parsed from one byte range, or the first line in it that could not be parsed.
+     */
+    private static class ChunkResult {
+        private final List<ChunkResult> parts = new ArrayList<>();
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private int lineCount;
+        private int errorLine;
+        private String errorMessage;
+    }
+
+    /**
+     * Loads every task in the file, reporting corrupted lines exactly like {@link TextSnapshot#read(Path)}.
+     *
+     * @param path The text data file.
+     * @return The tasks in file order.
+     * @throws EricException If a line is corrupted or the file cannot be read.
+     */
+    public ArrayList<Task> load(Path path) throws EricException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = findContentEnd(channel);
+            long[] bounds = splitIntoChunks(channel, end);
+            ChunkResult result = ForkJoinPool.commonPool().invoke(new ChunkParser(channel, bounds, 0,
+                    bounds.length - 1));
+            return joinInFileOrder(result);
+        } catch (IOException | UncheckedIOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
+
+    /**
+     * Finds where the last line with content ends, as blank lines at the end of the file are ignored.
+     *
+     * @param channel The open data file.
+     * @return The position just after the last line that is not blank.
+     * @throws IOException If the file cannot be read.
+     */
+    private long findContentEnd(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = channel.size();
+        long lastContent = -1;
+        while (position > 0 && lastContent == -1) {
+            long start = Math.max(0, position - SCAN_BUFFER_BYTES);
+            buffer.clear().limit((int) (position - start));
+            readFully(channel, buffer, start);
+            for (int i = buffer.limit() - 1; i >= 0 && lastContent == -1; i--) {
+                if (!Character.isWhitespace(buffer.get(i))) {
+                    lastContent = start + i;
+                }
+            }
+            position = start;
+        }
+        if (lastContent == -1) {
+            return 0;
+        }
+        long lineEnd = findNextNewline(channel, lastContent);
+        return lineEnd == -1 ? channel.size() : lineEnd;
+    }
+
+    /**
+     * Picks chunk boundaries that each fall just after a line break.
+     *
+     * @param channel The open data file.
+     * @param end The position where the content to parse ends.
+     * @return The boundaries, starting at 0 and ending at the end position.
+     * @throws IOException If the file cannot be read.
+     */
+    private long[] splitIntoChunks(FileChannel channel, long end) throws IOException {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long chunkCount = Math.max(1, Math.min(parallelism * 4L, end / minChunkBytes));
+        chunkCount = Math.max(chunkCount, (end + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        for (long k = 1; k < chunkCount; k++) {
+            long target = Math.max(end * k / chunkCount, bounds.get(bounds.size() - 1));
+            long newline = findNextNewline(channel, target);
+            if (newline == -1 || newline + 1 >= end) {
+                break;
+            }
+            if (newline + 1 > bounds.get(bounds.size() - 1)) {
+                bounds.add(newline + 1);
+            }
+        }
+        bounds.add(end);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Finds the first line break at or after the given position.
+     *
+     * @param channel The open data file.
+     * @param from The position to start looking from.
+     * @return The position of the line break, or -1 if there is none.
+     * @throws IOException If the file cannot be read.
+     */
+    private long findNextNewline(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear().limit((int) Math.min(SCAN_BUFFER_BYTES, size - position));
+            readFully(channel, buffer, position);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += buffer.limit();
+        }
+        return -1;
+    }
+
+    private void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Data file ended unexpectedly.");
+            }
+        }
+    }
+
+    /**
+     * Concatenates the chunk results in file order, reporting the first corrupted line with its line number.
+     *
+     * @param result The combined result of every chunk.
+     * @return Every task in file order.
+     * @throws EricException If any chunk found a corrupted line.
+     */
+    private ArrayList<Task> joinInFileOrder(ChunkResult result) throws EricException {
+        int total = 0;
+        for (ChunkResult part : result.parts) {
+            total += part.tasks.size();
+        }
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        int linesBefore = 0;
+        for (ChunkResult part : result.parts) {
+            if (part.errorMessage != null) {
+                throw TextSnapshot.corruptedAt(part.errorMessage, linesBefore + part.errorLine);
+            }
+            tasks.addAll(part.tasks);
+            linesBefore += part.lineCount;
+        }
+        return tasks;
+    }
+
+    /**
+     * Parses a run of chunks, splitting it in half until a single chunk is left.
+     */
+    private static class ChunkParser extends RecursiveTask<ChunkResult> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+
+        ChunkParser(FileChannel channel, long[] bounds, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkResult compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                ChunkParser left = new ChunkParser(channel, bounds, from, middle);
+                ChunkParser right = new ChunkParser(channel, bounds, middle, to);
+                left.fork();
+                ChunkResult rightResult = right.compute();
+                ChunkResult combined = new ChunkResult();
+                combined.parts.addAll(left.join().parts);
+                combined.parts.addAll(rightResult.parts);
+                return combined;
+            }
+            ChunkResult combined = new ChunkResult();
+            if (to > from) {
+                combined.parts.add(parseChunk(bounds[from], bounds[to]));
+            }
+            return combined;
+        }
+
+        /**
+         * Parses every line in a byte range, stopping at the first corrupted line.
+         *
+         * @param start The position of the first byte of the range.
+         * @param end The position just after the last byte of the range.
+         * @return The tasks in the range, or the first corrupted line in it.
+         */
+        private ChunkResult parseChunk(long start, long end) {
+            ChunkResult result = new ChunkResult();
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Charset charset = Charset.defaultCharset();
+            byte[] line = new byte[256];
+            int lineStart = 0;
+            int limit = buffer.limit();
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit && buffer.get(i) != '\n') {
+                    continue;
+                }
+                if (i == limit && lineStart == limit) {
+                    break;
+                }
+                int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                int length = lineEnd - lineStart;
+                line = length > line.length ? new byte[length] : line;
+                buffer.get(lineStart, line, 0, length);
+                result.lineCount++;
+                try {
+                    result.tasks.add(Task.fileToTask(new String(line, 0, length, charset)));
+                } catch (EricException e) {
+                    result.errorLine = result.lineCount;
+                    result.errorMessage = e.getMessage();
+                    return result;
+                }
+                lineStart = i + 1;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the corrupted records skipped while loading the data file and keeps them in a side file,
+ * so that they can be repaired by hand instead of being lost.
+ */
+public class Quarantine {
+    private final Path path;
+    private final List<String> records = new ArrayList<>();
+
+    /**
+     * Initialises a quarantine that keeps its records in the given side file.
+     *
+     * @param path The side file the records are appended to.
+     */
+    public Quarantine(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Sets a corrupted record aside.
+     *
+     * @param record The record exactly as it was read, without its line separator.
+     */
+    public void add(String record) {
+        records.add(record);
+    }
+
+    public int getCount() {
+        return records.size();
+    }
+
+    /**
+     * Appends every record set aside so far to the side file.
+     *
+     * @throws IOException If the side file cannot be written.
+     */
+    public void save() throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        Files.write(path, records, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -1,14 +1,15 @@
 package eric.repository;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.List;
 
 import eric.EricException;
 import eric.task.Task;
+import eric.task.TaskChange;
+import eric.task.TaskList;
 
 
 /**
@@ -16,7 +17,34 @@ import eric.task.Task;
  */
 public class Repository {
     private static final String TEXT_FILE_DIRECTORY = "./data/";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String ORPHANED_SUFFIX = ".orphaned";
+    private static final String QUARANTINE_SUFFIX = ".quarantine";
     private String filePath;
+    private final StorageMode mode;
+    private final Snapshot snapshot;
+    private final SnapshotFile snapshotFile;
+    private final Journal journal;
+    private final Compactor compactor;
+    private final GroupCommitWriter writer;
+    private boolean isRestoredFromBackup;
+    private int quarantinedCount;
+
+    /**
+     * Reads the tasks of a data file in one of the ways a snapshot supports.
+     */
+    private interface SnapshotReader<T> {
+        /**
+         * Reads the tasks of a data file.
+         *
+         * @param snapshot The format the data file was written in.
+         * @param path The data file.
+         * @param quarantine Where damaged records are set aside.
+         * @return The tasks stored in the data file.
+         * @throws EricException If the file is corrupted or cannot be read.
+         */
+        T read(Snapshot snapshot, Path path, Quarantine quarantine) throws EricException;
+    }
 
     /**
      * Initialises the repository with the configured file path.
@@ -24,7 +52,52 @@ public class Repository {
      * @param filePath The relative file path to the text file.
      */
     public Repository(String filePath) {
+        this(filePath, StorageMode.SNAPSHOT);
+    }
+
+    /**
+     * Initialises the repository with the configured file path and storage mode.
+     *
+     * @param filePath The relative file path to the text file.
+     * @param mode How changes to the task list are persisted.
+     */
+    public Repository(String filePath, StorageMode mode) {
+        this(filePath, mode, SnapshotFormat.TEXT);
+    }
+
+    /**
+     * Initialises the repository with the configured file path, storage mode and data file format.
+     * Existing data files are read in whichever format they were written in, while every new
+     * snapshot is written in the given format.
+     *
+     * @param filePath The relative file path to the data file.
+     * @param mode How changes to the task list are persisted.
+     * @param format The format the data file is written in.
+     */
+    public Repository(String filePath, StorageMode mode, SnapshotFormat format) {
+        this(filePath, mode, format, null);
+    }
+
+    /**
+     * Initialises a repository whose journaled changes are written behind the commands on a dedicated
+     * writer thread, so that a command does not wait for the disk. Bursts of changes are gathered into
+     * a single write, and {@link #flush()} waits for every change to be written.
+     * In snapshot mode, or without a durability, changes are still saved before a command returns.
+     *
+     * @param filePath The relative file path to the data file.
+     * @param mode How changes to the task list are persisted.
+     * @param format The format the data file is written in.
+     * @param durability How soon journaled changes are forced to disk, or null for no writer thread.
+     */
+    public Repository(String filePath, StorageMode mode, SnapshotFormat format, Durability durability) {
         this.filePath = filePath;
+        this.mode = mode;
+        this.snapshot = format.getSnapshot();
+        this.snapshotFile = new SnapshotFile(Paths.get(filePath));
+        this.journal = new Journal(Paths.get(filePath + JOURNAL_SUFFIX));
+        this.compactor = new Compactor(Paths.get(filePath), journal, format);
+        this.writer = mode == StorageMode.JOURNAL && durability != null
+                ? new GroupCommitWriter(new JournalSink(), durability) : null;
     }
 
     /**
@@ -37,88 +110,308 @@ public class Repository {
     }
 
     /**
-     * Writes tasks to a file.
+     * Saves current task list to the text file.
+     * In journal mode, the journal is cleared as the text file now holds every change.
      *
-     * @param tasks The arraylist of tasks to be written to a file.
-     * @throws IOException Exceptions relating to writing to a file.
+     * @param tasks The list of tasks to be saved.
+     * @throws EricException If an I/O error happens during the save process.
      */
-    private void writeTasksToFile(ArrayList<Task> tasks) throws IOException {
-        FileWriter fw = new FileWriter(filePath);
-        writeAllTasksToWriter(fw, tasks);
-        fw.close();
+    public void save(List<Task> tasks) throws EricException {
+        if (tasks == null) {
+            throw new EricException("Task list cannot be null.");
+        }
+        flush();
+        try {
+            makeFolder();
+            if (mode == StorageMode.JOURNAL) {
+                compactor.replaceSnapshot(tasks);
+            } else {
+                snapshotFile.replace(snapshot, tasks);
+            }
+        } catch (IOException e) {
+            throw new EricException("Met with error while trying to save!");
+        }
     }
 
     /**
-     * Writes all tasks to the file writer, one per line.
+     * Persists the changes made to the task list since it was last saved, then forgets them.
+     * Nothing is written when there are no changes. In journal mode only the changes are appended,
+     * and in snapshot mode the data file is updated in place when its format allows it.
+     * If the list dropped changes that went unsaved for too long, the whole list is saved instead.
      *
-     * @param fw The FileWriter to write tasks to.
-     * @param tasks The tasks to write.
-     * @throws IOException If writing fails.
+     * @param tasks The task list holding the unsaved changes.
+     * @throws EricException If an I/O error happens during the save process.
      */
-    private void writeAllTasksToWriter(FileWriter fw, ArrayList<Task> tasks)
-            throws IOException {
-        for (Task task : tasks) {
-            assert task != null : "Cannot save a null object into the task list.";
-            fw.write(task.toFileFormat() + System.lineSeparator());
+    public void saveChanges(TaskList tasks) throws EricException {
+        if (tasks.hasDroppedChanges()) {
+            save(tasks.getEveryTask());
+            tasks.clearUnsavedChanges();
+            return;
+        }
+        List<TaskChange> changes = tasks.getUnsavedChanges();
+        if (changes.isEmpty()) {
+            return;
         }
+        saveChanges(tasks.getEveryTask(), changes);
+        tasks.clearUnsavedChanges();
     }
 
-
     /**
-     * Loads tasks from the file into an arraylist.
+     * Persists a batch of changes in the way the storage mode allows.
      *
-     * @param file The file to read the tasks from.
-     * @return An arraylist of tasks.
-     * @throws EricException Exceptions related to reading from a file.
+     * @param tasks The full list of tasks after the changes.
+     * @param changes The changes to persist, oldest first.
+     * @throws EricException If an I/O error happens during the save process.
      */
-    private ArrayList<Task> loadTasksFromFile(File file) throws EricException {
-        ArrayList<Task> fileTasks = new ArrayList<>();
+    private void saveChanges(List<Task> tasks, List<TaskChange> changes) throws EricException {
         try {
-            Scanner s = new Scanner(file);
-            while (s.hasNext()) {
-                fileTasks.add(Task.fileToTask(s.nextLine()));
+            if (mode == StorageMode.SNAPSHOT && snapshot.writeChanges(Paths.get(filePath), tasks, changes)) {
+                return;
+            }
+            if (mode == StorageMode.SNAPSHOT) {
+                save(tasks);
+            } else if (writer != null) {
+                writer.submit(journal.formatRecords(changes), changes.size());
+            } else {
+                writeRecords(journal.formatRecords(changes), changes.size());
             }
-            return fileTasks;
         } catch (IOException e) {
-            throw new EricException("Met with error trying to load the file!");
+            throw new EricException("Met with error while trying to save!");
         }
     }
 
+    /**
+     * Appends records to the journal and starts a compaction if the journal has grown too large.
+     *
+     * @param records The records, each ending with a line separator.
+     * @param count The number of records.
+     * @throws IOException If the records cannot be written.
+     */
+    private void writeRecords(String records, int count) throws IOException {
+        appendRecords(records, count);
+        finishRecords(false);
+    }
 
     /**
-     * Saves current task list to the text file.
+     * Appends records to the journal, creating its folder if needed. With a writer thread, this only
+     * runs on that thread.
      *
-     * @param tasks The list of tasks to be saved.
-     * @throws EricException If an I/O error happens during the save process.
+     * @param records The records, each ending with a line separator.
+     * @param count The number of records.
+     * @throws IOException If the records cannot be written.
      */
-    public void save(ArrayList<Task> tasks) throws EricException {
-        if (tasks == null) {
-            throw new EricException("Task list cannot be null.");
+    private void appendRecords(String records, int count) throws IOException {
+        makeFolder();
+        journal.appendRecords(records, count);
+    }
+
+    /**
+     * Forces the records appended so far to disk if asked to, then starts a compaction if the journal
+     * has grown too large. With a writer thread, this only runs on that thread.
+     *
+     * @param isForced Whether the records must be forced to disk before returning.
+     * @throws IOException If the journal cannot be synced or rotated.
+     */
+    private void finishRecords(boolean isForced) throws IOException {
+        if (isForced) {
+            journal.sync();
         }
-        try {
-            makeFolder();
-            writeTasksToFile(tasks);
-        } catch (IOException e) {
-            throw new EricException("Met with error while trying to save!");
+        compactIfNeeded();
+    }
+
+    /**
+     * Waits until every change saved so far has been written by the writer thread.
+     * Returns straight away when changes are written before each save returns.
+     *
+     * @throws EricException If a change could not be written.
+     */
+    public void flush() throws EricException {
+        if (writer != null) {
+            writer.flush();
         }
     }
 
+    /**
+     * Starts a background compaction once the journal has grown past its limits.
+     *
+     * @throws IOException If the journal cannot be rotated.
+     */
+    private void compactIfNeeded() throws IOException {
+        if (compactor.shouldCompact()) {
+            compactor.compactInBackground();
+        }
+    }
 
+    /**
+     * Waits for any background compaction of the journal to finish.
+     *
+     * @throws EricException If the compaction failed.
+     */
+    public void awaitCompaction() throws EricException {
+        flush();
+        compactor.awaitIdle();
+    }
 
     /**
      * Loads task from the text file and reconstructs them into a Task ArrayList.
+     * In journal mode, the journaled changes are replayed on top of the text file.
+     * Damaged records that the data file format can detect are set aside, see {@link #getQuarantinedCount()}.
      *
      * @return An ArrayList containing the tasks loaded from the text file.
      * @throws EricException If the file is corrupted or if an I/O error is present.
      */
     public ArrayList<Task> load() throws EricException {
+        recoverInterruptedSaves();
+        ArrayList<Task> tasks = readDataFile(Snapshot::read, new ArrayList<>());
+        if (mode == StorageMode.JOURNAL) {
+            journal.replay(tasks);
+        }
+        rewriteIfQuarantined(tasks);
+        return tasks;
+    }
+
+    /**
+     * Loads the tasks without rebuilding them up front. Only the record boundaries of the data file
+     * are indexed, and each task is rebuilt the first time it is accessed. In journal mode, the
+     * journaled changes are replayed on top, which only rebuilds the tasks they mark.
+     *
+     * @return A list of the tasks, rebuilt on first access.
+     * @throws EricException If the data file or journal is corrupted or cannot be read.
+     */
+    public List<Task> loadLazily() throws EricException {
+        recoverInterruptedSaves();
+        List<Task> tasks = readDataFile(Snapshot::readLazily, new ArrayList<>());
+        if (mode == StorageMode.JOURNAL) {
+            journal.replay(tasks);
+        }
+        rewriteIfQuarantined(tasks);
+        return tasks;
+    }
+
+    /**
+     * Saves the loaded tasks in full if any damaged records were set aside, so the data file
+     * no longer holds them and they are not set aside again on the next load.
+     *
+     * @param tasks The tasks loaded.
+     * @throws EricException If the tasks cannot be saved.
+     */
+    private void rewriteIfQuarantined(List<Task> tasks) throws EricException {
+        if (quarantinedCount > 0) {
+            save(tasks);
+        }
+    }
+
+    /**
+     * Checks whether the last load found the data file unreadable and restored the backup instead.
+     *
+     * @return True if the tasks were loaded from the backup.
+     */
+    public boolean isRestoredFromBackup() {
+        return isRestoredFromBackup;
+    }
+
+    /**
+     * Returns how many damaged records the last load set aside in the quarantine file
+     * next to the data file.
+     *
+     * @return The number of records left out of the loaded tasks.
+     */
+    public int getQuarantinedCount() {
+        return quarantinedCount;
+    }
+
+    /**
+     * Finishes or discards any save that was interrupted, so that the data file holds a whole snapshot.
+     *
+     * @throws EricException If the files left behind cannot be recovered.
+     */
+    private void recoverInterruptedSaves() throws EricException {
+        flush();
+        if (mode == StorageMode.JOURNAL) {
+            compactor.recover();
+            return;
+        }
+        try {
+            snapshotFile.recover();
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
 
-        File dataFile = new File(filePath);
-        if (!dataFile.exists()) {
-            return new ArrayList<>();
+    /**
+     * Reads the data file in the format it was written in, falling back to the backup of the
+     * previous snapshot if the data file cannot be read. Damaged records are appended to the
+     * quarantine file.
+     *
+     * @param reader How the tasks are read from the file.
+     * @param empty The list to return when there is no data file yet.
+     * @return The tasks stored in the data file.
+     * @throws EricException If neither the data file nor its backup can be read.
+     */
+    private <T extends List<Task>> T readDataFile(SnapshotReader<T> reader, T empty) throws EricException {
+        Path dataFile = snapshotFile.getPath();
+        isRestoredFromBackup = false;
+        quarantinedCount = 0;
+        if (!Files.exists(dataFile)) {
+            return empty;
+        }
+        try {
+            return readInDetectedFormat(reader, dataFile);
+        } catch (EricException e) {
+            if (!restoreBackup()) {
+                throw e;
+            }
+            return readInDetectedFormat(reader, dataFile);
         }
-        return loadTasksFromFile(dataFile);
     }
 
+    private <T> T readInDetectedFormat(SnapshotReader<T> reader, Path dataFile) throws EricException {
+        Quarantine quarantine = new Quarantine(Paths.get(dataFile + QUARANTINE_SUFFIX));
+        try {
+            T tasks = reader.read(SnapshotFormat.detect(dataFile).getSnapshot(), dataFile, quarantine);
+            quarantine.save();
+            quarantinedCount = quarantine.getCount();
+            return tasks;
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
 
+    /**
+     * Puts a copy of the backup in place of the unreadable data file. The journal holds changes made
+     * on top of the unreadable file rather than the backup, so it is set aside instead of replayed.
+     *
+     * @return True if there was a backup to restore.
+     * @throws EricException If the backup cannot be put in place.
+     */
+    private boolean restoreBackup() throws EricException {
+        try {
+            if (!snapshotFile.restoreBackup()) {
+                return false;
+            }
+            if (Files.exists(journal.getPath())) {
+                SnapshotFile.moveAtomically(journal.getPath(), Paths.get(journal.getPath() + ORPHANED_SUFFIX));
+            }
+            isRestoredFromBackup = true;
+            return true;
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
+
+    /**
+     * Writes the records gathered by the writer thread to the journal. Appending is kept apart from
+     * syncing and compacting, so that records are never appended twice when only a later step fails.
+     */
+    private class JournalSink implements GroupCommitWriter.BatchSink {
+        @Override
+        public void write(String records, int count) throws IOException {
+            appendRecords(records, count);
+        }
+
+        @Override
+        public void finish(boolean isForced) throws IOException {
+            finishRecords(isForced);
+        }
+    }
 }
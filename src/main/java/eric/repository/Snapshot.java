@@ -0,0 +1,83 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import eric.EricException;
+import eric.task.Task;
+import eric.task.TaskChange;
+
+/**
+ * Represents an on-disk layout that the whole task list can be written to and read back from.
+ */
+public interface Snapshot {
+
+    /**
+     * Writes tasks to a file, replacing its previous content.
+     *
+     * @param path The file to write to.
+     * @param tasks The tasks to be written to the file.
+     * @throws IOException Exceptions relating to writing to a file.
+     */
+    void write(Path path, List<Task> tasks) throws IOException;
+
+    /**
+     * Loads tasks from the file into an arraylist.
+     *
+     * @param path The file to read the tasks from.
+     * @return An arraylist of tasks.
+     * @throws EricException If the file is corrupted or cannot be read.
+     */
+    ArrayList<Task> read(Path path) throws EricException;
+
+    /**
+     * Indexes only the record boundaries of the file and returns a list that rebuilds
+     * each task the first time it is accessed.
+     *
+     * @param path The file to read the tasks from.
+     * @return A list of the tasks in the file.
+     * @throws EricException If the file cannot be read.
+     */
+    List<Task> readLazily(Path path) throws EricException;
+
+    /**
+     * Loads tasks from the file, setting damaged records aside instead of rejecting the whole file
+     * when the layout can tell them apart. Layouts that cannot do so read the file as a whole.
+     *
+     * @param path The file to read the tasks from.
+     * @param quarantine Where damaged records are set aside.
+     * @return An arraylist of the undamaged tasks.
+     * @throws EricException If the file is corrupted beyond its records or cannot be read.
+     */
+    default ArrayList<Task> read(Path path, Quarantine quarantine) throws EricException {
+        return read(path);
+    }
+
+    /**
+     * Indexes the file like {@link #readLazily(Path)}, setting damaged records aside instead of
+     * rejecting the whole file when the layout can tell them apart.
+     *
+     * @param path The file to read the tasks from.
+     * @param quarantine Where damaged records are set aside.
+     * @return A list of the undamaged tasks in the file.
+     * @throws EricException If the file is corrupted beyond its records or cannot be read.
+     */
+    default List<Task> readLazily(Path path, Quarantine quarantine) throws EricException {
+        return readLazily(path);
+    }
+
+    /**
+     * Applies changes to the records of an existing file in place, when the layout allows it.
+     * The file must hold the tasks as they were before the changes.
+     *
+     * @param path The file holding the tasks before the changes.
+     * @param tasks The tasks after the changes.
+     * @param changes The changes made since the file was written, oldest first.
+     * @return True if the file now holds the changed tasks, false if it must be rewritten instead.
+     * @throws IOException If the file cannot be updated.
+     */
+    default boolean writeChanges(Path path, List<Task> tasks, List<TaskChange> changes) throws IOException {
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import eric.task.Task;
+
+/**
+ * Manages the data file together with the temporary file new snapshots are written to and a backup
+ * of the previous snapshot.
+ *
+ * <p>A new snapshot is written and synced to the temporary file first. The data file is then renamed
+ * to the backup and the temporary file renamed into its place, so the data file is never truncated
+ * and a crash leaves either generation whole.</p>
+ */
+public class SnapshotFile {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    private final Path path;
+    private final Path tempPath;
+    private final Path backupPath;
+
+    /**
+     * Initialises the files kept for the given data file.
+     *
+     * @param path The data file.
+     */
+    public SnapshotFile(Path path) {
+        this.path = path;
+        this.tempPath = Paths.get(path + TEMP_SUFFIX);
+        this.backupPath = Paths.get(path + BACKUP_SUFFIX);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Path getBackupPath() {
+        return backupPath;
+    }
+
+    /**
+     * Writes the tasks to the data file without ever leaving it partly written.
+     *
+     * @param snapshot The format to write the tasks in.
+     * @param tasks Every task in the list.
+     * @throws IOException If the tasks cannot be written.
+     */
+    public void replace(Snapshot snapshot, List<Task> tasks) throws IOException {
+        writeTemp(snapshot, tasks);
+        commitTemp();
+    }
+
+    /**
+     * Writes the tasks to the temporary file, which is synced to disk before this returns.
+     *
+     * @param snapshot The format to write the tasks in.
+     * @param tasks Every task in the list.
+     * @throws IOException If the tasks cannot be written.
+     */
+    public void writeTemp(Snapshot snapshot, List<Task> tasks) throws IOException {
+        snapshot.write(tempPath, tasks);
+    }
+
+    /**
+     * Checks whether a temporary snapshot is waiting to be moved into place.
+     *
+     * @return True if the temporary file exists.
+     */
+    public boolean hasTemp() {
+        return Files.exists(tempPath);
+    }
+
+    /**
+     * Moves the temporary snapshot into place, keeping the current data file as the backup.
+     *
+     * @throws IOException If the files cannot be moved.
+     */
+    public void commitTemp() throws IOException {
+        if (Files.exists(path)) {
+            moveAtomically(path, backupPath);
+        }
+        moveAtomically(tempPath, path);
+        syncDirectory();
+    }
+
+    /**
+     * Finishes or discards a snapshot that was being written when the program stopped.
+     * A temporary file is only complete once the data file has been moved to the backup,
+     * so it is moved into place if the data file is missing and discarded otherwise.
+     *
+     * @throws IOException If the files cannot be moved or removed.
+     */
+    public void recover() throws IOException {
+        if (!Files.exists(path) && Files.exists(tempPath) && Files.exists(backupPath)) {
+            moveAtomically(tempPath, path);
+            syncDirectory();
+        } else {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Replaces an unreadable data file with a copy of the backup, keeping the unreadable file aside.
+     *
+     * @return True if there was a backup to restore.
+     * @throws IOException If the files cannot be copied or moved.
+     */
+    public boolean restoreBackup() throws IOException {
+        if (!Files.exists(backupPath)) {
+            return false;
+        }
+        if (Files.exists(path)) {
+            moveAtomically(path, Paths.get(path + CORRUPT_SUFFIX));
+        }
+        Files.copy(backupPath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        moveAtomically(tempPath, path);
+        syncDirectory();
+        return true;
+    }
+
+    /**
+     * Moves a file over another in a single step where the file system allows it.
+     *
+     * @param source The file to move.
+     * @param target The file to replace.
+     * @throws IOException If the file cannot be moved.
+     */
+    static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Syncs the directory holding the data file so that the renames survive a crash.
+     */
+    private void syncDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open a directory, the renames are then left to the operating system
+        }
+    }
+}
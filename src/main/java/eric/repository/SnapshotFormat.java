@@ -0,0 +1,51 @@
+package eric.repository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Represents the supported layouts of the data file.
+ */
+public enum SnapshotFormat {
+    /** One task per line in the human-editable {@code T | 0 | description} format. */
+    TEXT(new TextSnapshot()),
+    /** A compact binary layout that is read through a buffer of the whole file. */
+    BINARY(new BinarySnapshot()),
+    /** The text format with a checksum in front of every line, so damaged lines can be set aside. */
+    CHECKSUMMED(new ChecksummedSnapshot());
+
+    private final Snapshot snapshot;
+
+    SnapshotFormat(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Determines the format an existing data file was written in from its leading bytes.
+     *
+     * @param path The data file to inspect.
+     * @return BINARY or CHECKSUMMED if the file starts with their header, TEXT otherwise.
+     * @throws IOException If the file cannot be read.
+     */
+    public static SnapshotFormat detect(Path path) throws IOException {
+        byte[] leading = new byte[Integer.BYTES];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.readNBytes(leading, 0, leading.length) < leading.length) {
+                return TEXT;
+            }
+        }
+        if (ByteBuffer.wrap(leading).getInt() == BinarySnapshot.MAGIC) {
+            return BINARY;
+        }
+        boolean isChecksummed = new String(leading, StandardCharsets.US_ASCII)
+                .equals(ChecksummedSnapshot.HEADER.substring(0, leading.length));
+        return isChecksummed ? CHECKSUMMED : TEXT;
+    }
+}
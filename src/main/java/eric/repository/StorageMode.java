@@ -0,0 +1,11 @@
+package eric.repository;
+
+/**
+ * Represents how changes to the task list are persisted to disk.
+ */
+public enum StorageMode {
+    /** Rewrites the whole data file on every change. */
+    SNAPSHOT,
+    /** Appends each change to a journal that is replayed on top of the last snapshot. */
+    JOURNAL
+}
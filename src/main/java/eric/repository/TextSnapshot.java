@@ -0,0 +1,254 @@
+package eric.repository;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Scanner;
+
+import eric.EricException;
+import eric.task.Task;
+import eric.task.TaskCodec;
+
+/**
+ * Reads and writes the plain-text data file, one task per line in the {@link Task#toFileFormat()} format.
+ */
+public class TextSnapshot implements Snapshot {
+    /** Files at least this large are parsed in parallel when more than one core is available. */
+    public static final long PARALLEL_THRESHOLD_BYTES = 16 * 1024 * 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * {@inheritDoc}
+     *
+     * Lines are encoded into a buffer that is written through a file channel and synced to disk.
+     */
+    @Override
+    public void write(Path path, List<Task> tasks) throws IOException {
+        TaskCodec codec = new TaskCodec();
+        CharsetEncoder encoder = Charset.defaultCharset().newEncoder();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Task task : tasks) {
+                assert task != null : "Cannot save a null object into the task list.";
+                CharBuffer line = CharBuffer.wrap(codec.encode(task).append(System.lineSeparator()));
+                encodeFully(channel, buffer, line, encoder);
+            }
+            encodeFully(channel, buffer, CharBuffer.allocate(0), encoder);
+            writeFully(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Encodes characters into the buffer, writing the buffer out whenever it fills up.
+     * An empty input ends the encoding and flushes anything the encoder still holds.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer holding the pending bytes.
+     * @param chars The characters to encode.
+     * @param encoder The encoder for the file's charset.
+     * @throws IOException If a character cannot be encoded or the channel cannot be written to.
+     */
+    private void encodeFully(FileChannel channel, ByteBuffer buffer, CharBuffer chars, CharsetEncoder encoder)
+            throws IOException {
+        boolean isEnd = !chars.hasRemaining();
+        CoderResult result = encoder.encode(chars, buffer, isEnd);
+        while (true) {
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (!result.isOverflow()) {
+                break;
+            }
+            writeFully(channel, buffer);
+            result = encoder.encode(chars, buffer, isEnd);
+        }
+        if (isEnd) {
+            while (encoder.flush(buffer).isOverflow()) {
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Large files are handed to a {@link ParallelTextLoader} so that parsing is spread over every core.
+     */
+    @Override
+    public ArrayList<Task> read(Path path) throws EricException {
+        try {
+            if (Files.size(path) >= PARALLEL_THRESHOLD_BYTES && Runtime.getRuntime().availableProcessors() > 1) {
+                return new ParallelTextLoader().load(path);
+            }
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+        return readSequentially(path);
+    }
+
+    /**
+     * Parses the file one line at a time on the calling thread.
+     *
+     * @param path The text data file.
+     * @return The tasks in file order.
+     * @throws EricException If a line is corrupted or the file cannot be read.
+     */
+    ArrayList<Task> readSequentially(Path path) throws EricException {
+        ArrayList<Task> fileTasks = new ArrayList<>();
+        int lineNumber = 0;
+        try (Scanner s = new Scanner(path, Charset.defaultCharset())) {
+            while (s.hasNext()) {
+                lineNumber++;
+                String line = s.nextLine();
+                try {
+                    fileTasks.add(Task.fileToTask(line));
+                } catch (EricException e) {
+                    throw corruptedAt(e.getMessage(), lineNumber);
+                }
+            }
+            return fileTasks;
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
+
+    /**
+     * Adds the line number to the error raised for a line that could not be parsed.
+     *
+     * @param message The message of the parsing error.
+     * @param lineNumber The one-based number of the line in the data file.
+     * @return The exception to report.
+     */
+    static EricException corruptedAt(String message, long lineNumber) {
+        return new EricException(message + " (line " + lineNumber + ")");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The file is read into memory and scanned once for line breaks. Like {@link #read(Path)}, blank
+     * lines at the end of the file are ignored.
+     */
+    @Override
+    public List<Task> readLazily(Path path) throws EricException {
+        try {
+            if (Files.size(path) > Integer.MAX_VALUE) {
+                return new ArrayList<>(read(path));
+            }
+            ByteBuffer buffer = readUnmapped(path);
+            int[] lineBounds = indexLines(buffer);
+            int lineCount = countLinesBeforeTrailingBlanks(buffer, lineBounds);
+            return new LazyTaskList(lineCount, line -> readLine(buffer, lineBounds, line));
+        } catch (IOException e) {
+            throw new EricException("Met with error trying to load the file!");
+        }
+    }
+
+    /**
+     * Reads a whole file into memory for a list whose tasks are rebuilt lazily. The file is read rather
+     * than mapped, since a mapped file cannot be renamed or replaced on Windows until the mapping is
+     * garbage collected, and the list is kept for the whole session while snapshots replace the file.
+     *
+     * @param path The data file, of at most {@link Integer#MAX_VALUE} bytes.
+     * @return The contents of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static ByteBuffer readUnmapped(Path path) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    /**
+     * Scans the file for line breaks.
+     *
+     * @param buffer The contents of the file.
+     * @return The start and end offset of every line, stored as consecutive pairs.
+     */
+    static int[] indexLines(ByteBuffer buffer) {
+        int[] bounds = new int[64];
+        int count = 0;
+        int lineStart = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+            if (i == limit && lineStart == limit) {
+                break;
+            }
+            if (count + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[count++] = lineStart;
+            bounds[count++] = i;
+            lineStart = i + 1;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Counts the lines that hold content, leaving out blank lines at the end of the file.
+     *
+     * @param buffer The contents of the file.
+     * @param lineBounds The start and end offset of every line.
+     * @return The number of lines to treat as records.
+     */
+    static int countLinesBeforeTrailingBlanks(ByteBuffer buffer, int[] lineBounds) {
+        int lineCount = lineBounds.length / 2;
+        while (lineCount > 0 && isBlank(buffer, lineBounds[2 * lineCount - 2], lineBounds[2 * lineCount - 1])) {
+            lineCount--;
+        }
+        return lineCount;
+    }
+
+    static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the task stored on a single line of the file.
+     *
+     * @param buffer The contents of the file.
+     * @param lineBounds The start and end offset of every line.
+     * @param line The zero-based line number.
+     * @return The task stored on the line.
+     * @throws EricException If the line is corrupted.
+     */
+    private Task readLine(ByteBuffer buffer, int[] lineBounds, int line) throws EricException {
+        int start = lineBounds[2 * line];
+        int end = lineBounds[2 * line + 1];
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        try {
+            return Task.fileToTask(new String(bytes, Charset.defaultCharset()));
+        } catch (EricException e) {
+            throw corruptedAt(e.getMessage(), line + 1);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package eric.task;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexes the dates of deadlines and events, so that the tasks falling on a date are found without
+ * checking every task.
+ *
+ * <p>Deadlines are kept in a sorted map from their date. Events are kept in an interval tree: a
+ * randomly balanced search tree ordered by start date, in which every node also records the latest
+ * end date below it. A search skips every subtree that ends before the date and every subtree that
+ * starts after it, so it takes O(log n + k) time for k matching tasks. Both structures are kept in date
+ * order, so range searches return their tasks in date order without sorting them.</p>
+ */
+public class DateIndex {
+    private final TreeMap<LocalDate, IdList> deadlines = new TreeMap<>();
+    private EventNode events;
+    private int eventCount;
+
+    /**
+     * Indexes a task appended to the list. Tasks without dates are ignored.
+     *
+     * @param id The id of the task, greater than that of every task indexed before.
+     * @param task The task.
+     */
+    public void add(int id, Task task) {
+        if (task instanceof Deadline) {
+            deadlines.computeIfAbsent(((Deadline) task).getBy(), date -> new IdList()).append(id);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            events = insert(events, new EventNode(id, event.getFrom().toEpochDay(), event.getTo().toEpochDay()));
+            eventCount++;
+        }
+    }
+
+    /**
+     * Removes a task deleted from the list.
+     *
+     * @param id The id of the task.
+     * @param task The task.
+     */
+    public void remove(int id, Task task) {
+        if (task instanceof Deadline) {
+            LocalDate by = ((Deadline) task).getBy();
+            IdList ids = deadlines.get(by);
+            if (ids != null && ids.remove(id) && ids.size() == 0) {
+                deadlines.remove(by);
+            }
+        } else if (task instanceof Event) {
+            events = delete(events, ((Event) task).getFrom().toEpochDay(), id);
+            eventCount--;
+        }
+    }
+
+    /**
+     * Estimates how many tasks fall on a date without finding them, counting every event as ongoing.
+     *
+     * @param date The date to search for.
+     * @return An upper bound on the number of tasks found by {@link #findOn(LocalDate)}.
+     */
+    public int estimateOn(LocalDate date) {
+        IdList due = deadlines.get(date);
+        return (due == null ? 0 : due.size()) + eventCount;
+    }
+
+    /**
+     * Estimates how many tasks fall within a range without finding them, counting every event as ongoing.
+     *
+     * @param range The days to search.
+     * @return An upper bound on the number of tasks found by {@link #findBetween(DateRange)}.
+     */
+    public int estimateBetween(DateRange range) {
+        int count = eventCount;
+        for (IdList ids : deadlines.subMap(range.getStart(), true, range.getEnd(), true).values()) {
+            count += ids.size();
+        }
+        return count;
+    }
+
+    /**
+     * Checks a single task the way {@link #findOn(LocalDate)} does, for when only a few tasks are left to check.
+     *
+     * @param task The task.
+     * @param date The date to search for.
+     * @return True if the task is a deadline due on the date or an event taking place on it.
+     */
+    public static boolean fallsOn(Task task, LocalDate date) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy().equals(date);
+        }
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            return !date.isBefore(event.getFrom()) && !date.isAfter(event.getTo());
+        }
+        return false;
+    }
+
+    /**
+     * Finds the deadlines due on a date and the events taking place on it.
+     *
+     * @param date The date to search for.
+     * @return The ids of the matching tasks in ascending order.
+     */
+    public int[] findOn(LocalDate date) {
+        IdList due = deadlines.get(date);
+        int dueCount = due == null ? 0 : due.size();
+        List<EventNode> ongoing = new ArrayList<>();
+        long day = date.toEpochDay();
+        collectOverlapping(events, day, day, ongoing);
+
+        int[] ids = new int[dueCount + ongoing.size()];
+        if (due != null) {
+            System.arraycopy(due.toArray(), 0, ids, 0, dueCount);
+        }
+        for (int i = 0; i < ongoing.size(); i++) {
+            ids[dueCount + i] = ongoing.get(i).id;
+        }
+        return IdList.sortDistinct(ids, ids.length);
+    }
+
+    /**
+     * Finds the deadlines due within a range and the events taking place during any part of it.
+     * Deadlines are ordered by their date and events by their start date, with tasks on the same
+     * date in list order.
+     *
+     * @param range The days to search.
+     * @return The ids of the matching tasks in date order.
+     */
+    public int[] findBetween(DateRange range) {
+        NavigableMap<LocalDate, IdList> due = deadlines.subMap(range.getStart(), true, range.getEnd(), true);
+        List<EventNode> ongoing = new ArrayList<>();
+        collectOverlapping(events, range.getStart().toEpochDay(), range.getEnd().toEpochDay(), ongoing);
+
+        int dueCount = 0;
+        for (IdList ids : due.values()) {
+            dueCount += ids.size();
+        }
+        int[] result = new int[dueCount + ongoing.size()];
+        int count = 0;
+        int next = 0;
+        for (Map.Entry<LocalDate, IdList> entry : due.entrySet()) {
+            long day = entry.getKey().toEpochDay();
+            for (int id : entry.getValue().toArray()) {
+                while (next < ongoing.size() && ongoing.get(next).comesBefore(day, id)) {
+                    result[count++] = ongoing.get(next++).id;
+                }
+                result[count++] = id;
+            }
+        }
+        while (next < ongoing.size()) {
+            result[count++] = ongoing.get(next++).id;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first deadlines due on or after a date.
+     *
+     * @param date The earliest due date to include.
+     * @param limit The most deadlines to return.
+     * @return The ids of the deadlines in order of their due date, then in list order.
+     */
+    public int[] findDeadlinesFrom(LocalDate date, int limit) {
+        int[] result = new int[limit];
+        int count = 0;
+        for (IdList ids : deadlines.tailMap(date, true).values()) {
+            int[] due = ids.toArray();
+            int taken = Math.min(due.length, limit - count);
+            System.arraycopy(due, 0, result, count, taken);
+            count += taken;
+            if (count == limit) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Collects the events below a node that overlap the given days, in order of their start date.
+     */
+    private static void collectOverlapping(EventNode node, long start, long end, List<EventNode> found) {
+        if (node == null || node.maxTo < start) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, found);
+        if (node.from <= end) {
+            if (node.to >= start) {
+                found.add(node);
+            }
+            collectOverlapping(node.right, start, end, found);
+        }
+    }
+
+    private static EventNode insert(EventNode node, EventNode added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.comesBefore(node.from, node.id)) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static EventNode delete(EventNode node, long from, int id) {
+        if (node == null) {
+            return null;
+        }
+        if (node.id == id) {
+            return merge(node.left, node.right);
+        }
+        if (from < node.from || (from == node.from && id < node.id)) {
+            node.left = delete(node.left, from, id);
+        } else {
+            node.right = delete(node.right, from, id);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two subtrees whose nodes all come before and after each other respectively.
+     */
+    private static EventNode merge(EventNode left, EventNode right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static EventNode rotateRight(EventNode node) {
+        EventNode pivot = node.left;
+        node.left = pivot.right;
+        node.update();
+        pivot.right = node;
+        pivot.update();
+        return pivot;
+    }
+
+    private static EventNode rotateLeft(EventNode node) {
+        EventNode pivot = node.right;
+        node.right = pivot.left;
+        node.update();
+        pivot.left = node;
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Holds an event in the interval tree, ordered by start date and then by id.
+     * Dates are kept as epoch days so that they compare cheaply.
+     */
+    private static class EventNode {
+        private final int id;
+        private final long from;
+        private final long to;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private long maxTo;
+        private EventNode left;
+        private EventNode right;
+
+        EventNode(int id, long from, long to) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.maxTo = to;
+        }
+
+        boolean comesBefore(long otherFrom, int otherId) {
+            return from < otherFrom || (from == otherFrom && id < otherId);
+        }
+
+        /**
+         * Recomputes the latest end date below this node after its children changed.
+         */
+        void update() {
+            maxTo = to;
+            if (left != null && left.maxTo > maxTo) {
+                maxTo = left.maxTo;
+            }
+            if (right != null && right.maxTo > maxTo) {
+                maxTo = right.maxTo;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package eric.task;
+import java.time.LocalDate;
+
+/**
+ * Represents the days from a start date to an end date, both included.
+ */
+public class DateRange {
+    private final LocalDate start;
+    private final LocalDate end;
+
+    /**
+     * Initialises a date range.
+     *
+     * @param start The first day of the range.
+     * @param end The last day of the range, not before the first.
+     */
+    public DateRange(LocalDate start, LocalDate end) {
+        assert start != null && end != null : "A date range must have a start and an end.";
+        assert !start.isAfter(end) : "A date range must not end before it starts.";
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return start + " to " + end;
+    }
+}
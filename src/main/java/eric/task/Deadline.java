@@ -25,6 +25,22 @@ public class Deadline extends Task {
         this.by = parseDate(by);
     }
 
+    /**
+     * Initialises a Deadline task with a description and an already parsed deadline.
+     *
+     * @param description The description of the task.
+     * @param by The deadline date.
+     */
+    public Deadline(String description, LocalDate by) {
+        super(description);
+        assert by != null : "Deadline 'by' date should not be null.";
+        this.by = by;
+    }
+
+    public LocalDate getBy() {
+        return by;
+    }
+
     /**
      * Parses dateString into an actual LocalDate object.
      *
@@ -29,6 +29,32 @@ public class Event extends Task {
 
     }
 
+    /**
+     * Initialises an Event task with a description and already parsed start and end dates.
+     *
+     * @param description The description of the event.
+     * @param from The start date of the event.
+     * @param to The end date of the event.
+     * @throws EricException If the start date is after the end date.
+     */
+    public Event(String description, LocalDate from, LocalDate to) throws EricException {
+        super(description);
+        assert from != null && to != null : "Event from and to must not be null.";
+        if (from.isAfter(to)) {
+            throw new EricException("Event start date must not be after end date.");
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
     /**
      * Parses the from and to string into the Event object.
      *
@@ -0,0 +1,121 @@
+package eric.task;
+import java.util.Arrays;
+
+/**
+ * Keeps a compressed bitmap of task ids for each task type and for completed tasks, so that type and
+ * status filters are combined as set operations before any task is looked at.
+ *
+ * <p>The bitmaps hold task ids rather than positions, so deleting a task only removes its id and never
+ * shifts the others. The list and its numbering are unchanged.</p>
+ */
+public class FilterIndex {
+    private final IdBitmap all = new IdBitmap();
+    private final IdBitmap todos = new IdBitmap();
+    private final IdBitmap deadlines = new IdBitmap();
+    private final IdBitmap events = new IdBitmap();
+    private final IdBitmap done = new IdBitmap();
+
+    /**
+     * Indexes a task appended to the list.
+     *
+     * @param id The id of the task.
+     * @param task The task.
+     */
+    public void add(int id, Task task) {
+        all.add(id);
+        bitmapOf(task).add(id);
+        if (task.isDone()) {
+            done.add(id);
+        }
+    }
+
+    /**
+     * Removes a task deleted from the list.
+     *
+     * @param id The id of the task.
+     * @param task The task.
+     */
+    public void remove(int id, Task task) {
+        all.remove(id);
+        bitmapOf(task).remove(id);
+        done.remove(id);
+    }
+
+    /**
+     * Records that a task was marked as done or undone.
+     *
+     * @param id The id of the task.
+     * @param isDone Whether the task is now done.
+     */
+    public void setDone(int id, boolean isDone) {
+        if (isDone) {
+            done.add(id);
+        } else {
+            done.remove(id);
+        }
+    }
+
+    private IdBitmap bitmapOf(Task task) {
+        if (task instanceof Deadline) {
+            return deadlines;
+        }
+        if (task instanceof Event) {
+            return events;
+        }
+        return todos;
+    }
+
+    /**
+     * Finds the tasks of the selected types and statuses. Selecting no type, or no status,
+     * places no restriction on it.
+     *
+     * @param isTodo Whether todo tasks are selected.
+     * @param isDeadline Whether deadline tasks are selected.
+     * @param isEvent Whether event tasks are selected.
+     * @param isDone Whether done tasks are selected.
+     * @param isUndone Whether undone tasks are selected.
+     * @return The set of matching ids.
+     */
+    public IdBitmap select(boolean isTodo, boolean isDeadline, boolean isEvent, boolean isDone, boolean isUndone) {
+        IdBitmap selected = isTodo || isDeadline || isEvent ? selectTypes(isTodo, isDeadline, isEvent) : all;
+        if (isDone && !isUndone) {
+            return selected.and(done);
+        }
+        if (isUndone && !isDone) {
+            return selected.andNot(done);
+        }
+        return selected;
+    }
+
+    private IdBitmap selectTypes(boolean isTodo, boolean isDeadline, boolean isEvent) {
+        IdBitmap selected = new IdBitmap();
+        if (isTodo) {
+            selected = selected.or(todos);
+        }
+        if (isDeadline) {
+            selected = selected.or(deadlines);
+        }
+        if (isEvent) {
+            selected = selected.or(events);
+        }
+        return selected;
+    }
+
+    /**
+     * Keeps the ids found in a set, without changing their order.
+     *
+     * @param ids Ids of tasks in the list, in any order.
+     * @param selected The ids to keep.
+     * @return The ids found in the set.
+     */
+    public static int[] retain(int[] ids, IdBitmap selected) {
+        int[] result = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (selected.contains(id)) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
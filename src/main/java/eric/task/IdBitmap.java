@@ -0,0 +1,386 @@
+package eric.task;
+import java.util.Arrays;
+
+/**
+ * Holds a set of task ids as a compressed bitmap, in the style of a roaring bitmap.
+ *
+ * <p>Ids are grouped by their upper 16 bits. Each group keeps its lower 16 bits either as a sorted
+ * array while it holds at most {@value #ARRAY_LIMIT} ids, or as a plain bitmap of 65536 bits once it
+ * holds more. Sparse and dense sets therefore both stay small, and set operations work a group at
+ * a time, a machine word at a time for dense groups.</p>
+ */
+public class IdBitmap {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * Adds an id to the set.
+     *
+     * @param id A non-negative id.
+     */
+    public void add(int id) {
+        char key = (char) (id >>> 16);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new Container());
+        }
+        containers[index].add((char) id);
+    }
+
+    /**
+     * Removes an id from the set.
+     *
+     * @param id A non-negative id.
+     */
+    public void remove(int id) {
+        int index = indexOf((char) (id >>> 16));
+        if (index < 0) {
+            return;
+        }
+        containers[index].remove((char) id);
+        if (containers[index].cardinality == 0) {
+            removeContainer(index);
+        }
+    }
+
+    /**
+     * Checks whether an id is in the set.
+     *
+     * @param id A non-negative id.
+     * @return True if the id is in the set.
+     */
+    public boolean contains(int id) {
+        int index = indexOf((char) (id >>> 16));
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    /**
+     * Returns the number of ids in the set.
+     *
+     * @return The cardinality of the set.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the ids found in both sets.
+     *
+     * @param other The other set.
+     * @return A new set holding the intersection.
+     */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids found in either set.
+     *
+     * @param other The other set.
+     * @return A new set holding the union.
+     */
+    public IdBitmap or(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendIfNotEmpty(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.appendIfNotEmpty(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of this set that are not in the other set.
+     *
+     * @param other The other set.
+     * @return A new set holding the difference.
+     */
+    public IdBitmap andNot(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            boolean isShared = j < other.size && other.keys[j] == keys[i];
+            result.appendIfNotEmpty(keys[i], isShared ? containers[i].andNot(other.containers[j])
+                    : containers[i].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids in the set.
+     *
+     * @return The ids in ascending order.
+     */
+    public int[] toArray() {
+        int[] ids = new int[cardinality()];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count = containers[i].copyTo(ids, count, keys[i] << 16);
+        }
+        return ids;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private void appendIfNotEmpty(char key, Container container) {
+        if (container.cardinality > 0) {
+            insertContainer(size, key, container);
+        }
+    }
+
+    /**
+     * Holds the lower 16 bits of the ids sharing the same upper 16 bits, as a sorted array while
+     * there are few of them and as a bitmap otherwise.
+     */
+    private static class Container {
+        private char[] values = new char[4];
+        private long[] words;
+        private int cardinality;
+
+        static Container ofWords(long[] words) {
+            Container container = new Container();
+            container.values = null;
+            container.words = words;
+            for (long word : words) {
+                container.cardinality += Long.bitCount(word);
+            }
+            container.compactIfSparse();
+            return container;
+        }
+
+        boolean contains(char value) {
+            if (words != null) {
+                return (words[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        void add(char value) {
+            if (words != null) {
+                long bit = 1L << value;
+                if ((words[value >>> 6] & bit) == 0) {
+                    words[value >>> 6] |= bit;
+                    cardinality++;
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                words = toWords();
+                values = null;
+                add(value);
+                return;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_LIMIT));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+        }
+
+        void remove(char value) {
+            if (words != null) {
+                long bit = 1L << value;
+                if ((words[value >>> 6] & bit) != 0) {
+                    words[value >>> 6] &= ~bit;
+                    cardinality--;
+                    compactIfSparse();
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+        }
+
+        Container and(Container other) {
+            if (words == null && other.words == null) {
+                Container result = new Container();
+                result.values = new char[Math.max(Math.min(cardinality, other.cardinality), 1)];
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (values[i] < other.values[j]) {
+                        i++;
+                    } else if (values[i] > other.values[j]) {
+                        j++;
+                    } else {
+                        result.values[result.cardinality++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return result;
+            }
+            if (words == null || other.words == null) {
+                Container sparse = words == null ? this : other;
+                Container dense = words == null ? other : this;
+                Container result = new Container();
+                result.values = new char[Math.max(sparse.cardinality, 1)];
+                for (int i = 0; i < sparse.cardinality; i++) {
+                    if (dense.contains(sparse.values[i])) {
+                        result.values[result.cardinality++] = sparse.values[i];
+                    }
+                }
+                return result;
+            }
+            long[] result = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = words[i] & other.words[i];
+            }
+            return ofWords(result);
+        }
+
+        Container or(Container other) {
+            long[] result = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < WORDS; i++) {
+                result[i] |= otherWords[i];
+            }
+            return ofWords(result);
+        }
+
+        Container andNot(Container other) {
+            if (words == null) {
+                Container result = new Container();
+                result.values = new char[Math.max(cardinality, 1)];
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        result.values[result.cardinality++] = values[i];
+                    }
+                }
+                return result;
+            }
+            long[] result = toWords();
+            long[] otherWords = other.toWords();
+            for (int i = 0; i < WORDS; i++) {
+                result[i] &= ~otherWords[i];
+            }
+            return ofWords(result);
+        }
+
+        Container copy() {
+            Container copy = new Container();
+            copy.values = values == null ? null : Arrays.copyOf(values, Math.max(cardinality, 1));
+            copy.words = words == null ? null : words.clone();
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        /**
+         * Writes the ids held to an array.
+         *
+         * @return The position after the last id written.
+         */
+        int copyTo(int[] ids, int offset, int high) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    ids[offset++] = high | values[i];
+                }
+                return offset;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    ids[offset++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        private long[] toWords() {
+            if (words != null) {
+                return words.clone();
+            }
+            long[] result = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                result[values[i] >>> 6] |= 1L << values[i];
+            }
+            return result;
+        }
+
+        /**
+         * Switches a bitmap back to a sorted array once it holds few enough values.
+         */
+        private void compactIfSparse() {
+            if (words == null || cardinality > ARRAY_LIMIT) {
+                return;
+            }
+            char[] compacted = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    compacted[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = compacted;
+            words = null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package eric.task;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Holds task ids in ascending order, as kept by the indexes of the task list.
+ */
+class IdList {
+    private int[] ids = new int[4];
+    private int size;
+
+    /**
+     * Adds an id greater than every id in the list.
+     *
+     * @param id The id to add.
+     */
+    void append(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Removes an id from the list.
+     *
+     * @param id The id to remove.
+     * @return True if the id was in the list.
+     */
+    boolean remove(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the ids found in both sorted arrays.
+     *
+     * @param first Ids in ascending order.
+     * @param second Ids in ascending order.
+     * @return The common ids in ascending order.
+     */
+    static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Keeps the ids that are also in a sorted array, without changing their order.
+     *
+     * @param ids Ids in any order.
+     * @param allowed Ids in ascending order.
+     * @return The ids found in both arrays, in the order of the first.
+     */
+    static int[] retain(int[] ids, int[] allowed) {
+        int[] result = new int[Math.min(ids.length, allowed.length)];
+        int count = 0;
+        for (int id : ids) {
+            if (count < result.length && Arrays.binarySearch(allowed, id) >= 0) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Drops the ids that are in a sorted array, without changing the order of the rest.
+     *
+     * @param ids Ids in any order.
+     * @param excluded Ids in ascending order.
+     * @return The ids not found in the second array, in the order of the first.
+     */
+    static int[] exclude(int[] ids, int[] excluded) {
+        int[] result = new int[ids.length];
+        int count = 0;
+        for (int id : ids) {
+            if (Arrays.binarySearch(excluded, id) < 0) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Merges lists into one sorted array without duplicates.
+     *
+     * @param lists The lists to merge.
+     * @return Every id found in any of the lists, in ascending order.
+     */
+    static int[] union(List<IdList> lists) {
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        if (lists.size() == 1) {
+            return lists.get(0).toArray();
+        }
+        int total = 0;
+        for (IdList list : lists) {
+            total += list.size;
+        }
+        int[] merged = new int[total];
+        int offset = 0;
+        for (IdList list : lists) {
+            System.arraycopy(list.ids, 0, merged, offset, list.size);
+            offset += list.size;
+        }
+        return sortDistinct(merged, merged.length);
+    }
+
+    /**
+     * Sorts the first ids of an array and drops duplicates.
+     *
+     * @param ids The ids, sorted in place.
+     * @param count How many of the ids are used.
+     * @return The distinct ids in ascending order.
+     */
+    static int[] sortDistinct(int[] ids, int count) {
+        ParallelScan.sort(ids, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+}
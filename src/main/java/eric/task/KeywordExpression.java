@@ -0,0 +1,507 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Represents the keywords of a search as an expression of keywords combined with AND, OR and NOT.
+ *
+ * <p>An expression is evaluated against the keyword index a sub-expression at a time. Within an AND,
+ * the sub-expression expected to match the fewest tasks is evaluated first, and once few enough tasks
+ * are left the rest are checked on the descriptions of those tasks instead of through the index. A NOT
+ * only needs every task of the list when it is not part of an AND, since within one it only removes
+ * tasks.</p>
+ *
+ * <p>Expressions are kept in a canonical form, with the keywords in lower case and the parts of each
+ * AND and OR sorted and without repeats, so that equal expressions print the same.</p>
+ */
+public abstract class KeywordExpression {
+    /** How many times more a task checked directly costs than an id found through the index. */
+    private static final int CHECK_COST = 8;
+
+    /**
+     * Gives an expression access to the list it is evaluated against. Tasks can only be looked up when
+     * the expression is evaluated, not while it is planned.
+     */
+    static class Context {
+        private final KeywordIndex keywordIndex;
+        private final FilterIndex filterIndex;
+        private final IntFunction<Task> taskById;
+        private final int taskCount;
+
+        Context(KeywordIndex keywordIndex, FilterIndex filterIndex, IntFunction<Task> taskById, int taskCount) {
+            this.keywordIndex = keywordIndex;
+            this.filterIndex = filterIndex;
+            this.taskById = taskById;
+            this.taskCount = taskCount;
+        }
+
+        private int[] allIds() {
+            return filterIndex.select(false, false, false, false, false).toArray();
+        }
+
+        private String descriptionOf(int id) {
+            return taskById.apply(id).getDescription().toLowerCase();
+        }
+    }
+
+    /**
+     * Creates an expression matching descriptions containing a keyword.
+     *
+     * @param keyword A keyword without whitespace.
+     * @return The keyword expression.
+     */
+    public static KeywordExpression keyword(String keyword) {
+        return keyword(keyword, 0);
+    }
+
+    /**
+     * Creates an expression matching descriptions containing a keyword, or a word within a few edits of
+     * it to allow for typos.
+     *
+     * @param keyword A keyword without whitespace.
+     * @param maxEdits The most characters inserted, deleted or replaced to turn a word into the keyword.
+     * @return The keyword expression.
+     */
+    public static KeywordExpression keyword(String keyword, int maxEdits) {
+        assert maxEdits >= 0 : "A keyword should not need fewer than no edits";
+        String lowercased = keyword.toLowerCase();
+        return maxEdits == 0 ? new Keyword(lowercased) : new FuzzyKeyword(lowercased, maxEdits);
+    }
+
+    /**
+     * Creates an expression matching descriptions matched by every part.
+     *
+     * @param parts The parts, of which there is at least one.
+     * @return The AND expression, or the only distinct part.
+     */
+    public static KeywordExpression and(List<KeywordExpression> parts) {
+        List<KeywordExpression> distinct = canonical(parts, And.class);
+        return distinct.size() == 1 ? distinct.get(0) : new And(distinct);
+    }
+
+    /**
+     * Creates an expression matching descriptions matched by any part.
+     *
+     * @param parts The parts, of which there is at least one.
+     * @return The OR expression, or the only distinct part.
+     */
+    public static KeywordExpression or(List<KeywordExpression> parts) {
+        List<KeywordExpression> distinct = canonical(parts, Or.class);
+        return distinct.size() == 1 ? distinct.get(0) : new Or(distinct);
+    }
+
+    /**
+     * Creates an expression matching descriptions not matched by another.
+     *
+     * @param part The expression to negate.
+     * @return The NOT expression.
+     */
+    public static KeywordExpression not(KeywordExpression part) {
+        return part instanceof Not ? ((Not) part).part : new Not(part);
+    }
+
+    /**
+     * Creates the expression of a plain list of keywords, which match if every keyword matches or if
+     * any does.
+     *
+     * @param keywords The keywords, where empty ones are ignored.
+     * @param isStrict Whether every keyword must match.
+     * @param maxEdits The most edits a word may be from a keyword to match it, or 0 to allow no typos.
+     * @return The expression, or null if there are no keywords.
+     */
+    public static KeywordExpression of(String[] keywords, boolean isStrict, int maxEdits) {
+        List<KeywordExpression> parts = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (!keyword.isEmpty()) {
+                parts.add(keyword(keyword, maxEdits));
+            }
+        }
+        if (parts.isEmpty()) {
+            return null;
+        }
+        return isStrict ? and(parts) : or(parts);
+    }
+
+    /**
+     * Flattens nested expressions of the same kind, then sorts the parts and drops repeats.
+     */
+    private static List<KeywordExpression> canonical(List<KeywordExpression> parts,
+                                                     Class<? extends KeywordExpression> kind) {
+        assert !parts.isEmpty() : "An expression should combine at least one part";
+        TreeMap<String, KeywordExpression> byText = new TreeMap<>();
+        for (KeywordExpression part : parts) {
+            List<KeywordExpression> flattened = kind.isInstance(part) ? ((Group) part).parts : List.of(part);
+            for (KeywordExpression inner : flattened) {
+                byText.putIfAbsent(inner.toString(), inner);
+            }
+        }
+        return new ArrayList<>(byText.values());
+    }
+
+    /**
+     * Checks a lowercased description against the expression.
+     *
+     * @param description The lowercased description of a task.
+     * @return True if the description matches.
+     */
+    abstract boolean matches(String description);
+
+    /**
+     * Estimates how many tasks match, without finding them.
+     */
+    abstract int estimate(Context context);
+
+    /**
+     * Estimates the work of finding the matching tasks through the index.
+     */
+    abstract long cost(Context context);
+
+    /**
+     * Finds the matching tasks.
+     *
+     * @return The ids of the matching tasks in ascending order.
+     */
+    abstract int[] evaluate(Context context);
+
+    /**
+     * Keeps the candidates that match, either by checking each of them or by finding the matching tasks
+     * through the index, whichever is expected to be cheaper.
+     *
+     * @param candidates The ids of the tasks to narrow down, in any order.
+     * @return The matching candidates, in the order given.
+     */
+    int[] narrow(int[] candidates, Context context) {
+        if ((long) candidates.length * CHECK_COST < cost(context)) {
+            return check(candidates, context);
+        }
+        return IdList.retain(candidates, evaluate(context));
+    }
+
+    /**
+     * Keeps the candidates whose descriptions match.
+     */
+    int[] check(int[] candidates, Context context) {
+        return Arrays.stream(candidates).filter(id -> matches(context.descriptionOf(id))).toArray();
+    }
+
+    /**
+     * Collects the indexed words matched by the keywords of the expression, leaving out negated ones.
+     *
+     * @param keywordIndex The keyword index of the list.
+     * @param words The words collected so far, where a word matched by several keywords is repeated.
+     */
+    abstract void collectWords(KeywordIndex keywordIndex, List<String> words);
+
+    /**
+     * Returns the text of the expression, with brackets around parts that need them.
+     */
+    String toOperand() {
+        return toString();
+    }
+
+    /**
+     * Matches descriptions containing a keyword.
+     */
+    private static class Keyword extends KeywordExpression {
+        private final String keyword;
+
+        Keyword(String keyword) {
+            this.keyword = keyword;
+        }
+
+        @Override
+        boolean matches(String description) {
+            return description.contains(keyword);
+        }
+
+        @Override
+        int estimate(Context context) {
+            return context.keywordIndex.estimate(keyword, context.taskCount);
+        }
+
+        @Override
+        long cost(Context context) {
+            return context.keywordIndex.estimateCost(keyword, estimate(context));
+        }
+
+        @Override
+        int[] evaluate(Context context) {
+            return context.keywordIndex.findAll(new String[] {keyword});
+        }
+
+        @Override
+        void collectWords(KeywordIndex keywordIndex, List<String> words) {
+            words.addAll(keywordIndex.findWordsContaining(keyword));
+        }
+
+        @Override
+        public String toString() {
+            return keyword;
+        }
+    }
+
+    /**
+     * Matches descriptions containing a keyword or a word within a few edits of it.
+     */
+    private static class FuzzyKeyword extends KeywordExpression {
+        private final String keyword;
+        private final int maxEdits;
+
+        FuzzyKeyword(String keyword, int maxEdits) {
+            this.keyword = keyword;
+            this.maxEdits = maxEdits;
+        }
+
+        @Override
+        boolean matches(String description) {
+            if (description.contains(keyword)) {
+                return true;
+            }
+            for (String word : KeywordIndex.splitIntoWords(description)) {
+                if (Math.abs(word.length() - keyword.length()) <= maxEdits
+                        && TermDictionary.distance(word, keyword) <= maxEdits) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int estimate(Context context) {
+            return context.keywordIndex.estimateAnyWord(context.keywordIndex.findWordsNear(keyword, maxEdits),
+                    context.taskCount);
+        }
+
+        @Override
+        long cost(Context context) {
+            return estimate(context);
+        }
+
+        @Override
+        int[] evaluate(Context context) {
+            return context.keywordIndex.findAnyWord(context.keywordIndex.findWordsNear(keyword, maxEdits));
+        }
+
+        @Override
+        void collectWords(KeywordIndex keywordIndex, List<String> words) {
+            words.addAll(keywordIndex.findWordsNear(keyword, maxEdits));
+        }
+
+        @Override
+        public String toString() {
+            return keyword + "~" + maxEdits;
+        }
+    }
+
+    /**
+     * Combines several parts.
+     */
+    private abstract static class Group extends KeywordExpression {
+        protected final List<KeywordExpression> parts;
+
+        Group(List<KeywordExpression> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        long cost(Context context) {
+            long cost = 0;
+            for (KeywordExpression part : parts) {
+                cost += part.cost(context);
+            }
+            return cost;
+        }
+
+        @Override
+        void collectWords(KeywordIndex keywordIndex, List<String> words) {
+            for (KeywordExpression part : parts) {
+                part.collectWords(keywordIndex, words);
+            }
+        }
+
+        @Override
+        String toOperand() {
+            return "(" + this + ")";
+        }
+
+        String join(String operator) {
+            List<String> operands = new ArrayList<>();
+            for (KeywordExpression part : parts) {
+                operands.add(part.toOperand());
+            }
+            return String.join(" " + operator + " ", operands);
+        }
+    }
+
+    /**
+     * Matches descriptions matched by every part.
+     */
+    private static class And extends Group {
+        And(List<KeywordExpression> parts) {
+            super(parts);
+        }
+
+        @Override
+        boolean matches(String description) {
+            return parts.stream().allMatch(part -> part.matches(description));
+        }
+
+        @Override
+        int estimate(Context context) {
+            int estimate = context.taskCount;
+            for (KeywordExpression part : parts) {
+                if (!(part instanceof Not)) {
+                    estimate = Math.min(estimate, part.estimate(context));
+                }
+            }
+            return estimate;
+        }
+
+        /**
+         * Starts from the most selective part that is not a NOT, or from every task if there is none, then
+         * narrows the tasks down with the other parts.
+         */
+        @Override
+        int[] evaluate(Context context) {
+            List<KeywordExpression> ordered = byEstimate(context);
+            KeywordExpression first = ordered.get(0);
+            if (first instanceof Not) {
+                return narrow(context.allIds(), ordered, context);
+            }
+            return narrow(first.evaluate(context), ordered.subList(1, ordered.size()), context);
+        }
+
+        @Override
+        int[] narrow(int[] candidates, Context context) {
+            return narrow(candidates, byEstimate(context), context);
+        }
+
+        /**
+         * Orders the parts so that those expected to keep the fewest tasks come first and NOTs come last.
+         */
+        private List<KeywordExpression> byEstimate(Context context) {
+            List<KeywordExpression> ordered = new ArrayList<>(parts);
+            ordered.sort(Comparator.comparing((KeywordExpression part) -> part instanceof Not)
+                    .thenComparingInt(part -> part.estimate(context))
+                    .thenComparingLong(part -> part.cost(context)));
+            return ordered;
+        }
+
+        private static int[] narrow(int[] candidates, List<KeywordExpression> ordered, Context context) {
+            int[] matches = candidates;
+            for (KeywordExpression part : ordered) {
+                if (matches.length == 0) {
+                    break;
+                }
+                matches = part.narrow(matches, context);
+            }
+            return matches;
+        }
+
+        @Override
+        public String toString() {
+            return join("AND");
+        }
+    }
+
+    /**
+     * Matches descriptions matched by any part.
+     */
+    private static class Or extends Group {
+        Or(List<KeywordExpression> parts) {
+            super(parts);
+        }
+
+        @Override
+        boolean matches(String description) {
+            return parts.stream().anyMatch(part -> part.matches(description));
+        }
+
+        @Override
+        int estimate(Context context) {
+            long estimate = 0;
+            for (KeywordExpression part : parts) {
+                estimate += part.estimate(context);
+            }
+            return (int) Math.min(estimate, context.taskCount);
+        }
+
+        @Override
+        int[] evaluate(Context context) {
+            List<int[]> found = new ArrayList<>();
+            int total = 0;
+            for (KeywordExpression part : parts) {
+                found.add(part.evaluate(context));
+                total += found.get(found.size() - 1).length;
+            }
+            int[] merged = new int[total];
+            int offset = 0;
+            for (int[] ids : found) {
+                System.arraycopy(ids, 0, merged, offset, ids.length);
+                offset += ids.length;
+            }
+            return IdList.sortDistinct(merged, total);
+        }
+
+        @Override
+        public String toString() {
+            return join("OR");
+        }
+    }
+
+    /**
+     * Matches descriptions not matched by a part.
+     */
+    private static class Not extends KeywordExpression {
+        private final KeywordExpression part;
+
+        Not(KeywordExpression part) {
+            this.part = part;
+        }
+
+        @Override
+        boolean matches(String description) {
+            return !part.matches(description);
+        }
+
+        @Override
+        int estimate(Context context) {
+            return context.taskCount;
+        }
+
+        @Override
+        long cost(Context context) {
+            return part.cost(context) + context.taskCount;
+        }
+
+        @Override
+        int[] evaluate(Context context) {
+            return narrow(context.allIds(), context);
+        }
+
+        /**
+         * Removes the candidates the negated part matches, so only the tasks it matches are found.
+         */
+        @Override
+        int[] narrow(int[] candidates, Context context) {
+            if ((long) candidates.length * CHECK_COST < part.cost(context)) {
+                return check(candidates, context);
+            }
+            return IdList.exclude(candidates, part.evaluate(context));
+        }
+
+        @Override
+        void collectWords(KeywordIndex keywordIndex, List<String> words) {
+            // A task cannot match better by containing what it must not contain
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + part.toOperand();
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps every word of the task descriptions to the ids of the tasks containing it.
+ *
+ * <p>Words are the lowercased descriptions split at whitespace. A keyword cannot contain whitespace,
+ * so it is contained in a description exactly when it is contained in one of its words. A keyword
+ * therefore matches the tasks of every word containing it, which keeps the substring matching of
+ * {@code find} while only touching the tasks that match.</p>
+ *
+ * <p>The words are also indexed by their trigrams, the runs of three characters in them. A word
+ * containing a keyword of three or more characters contains each of its trigrams, so only the words
+ * sharing the keyword's rarest trigram are checked for it. Shorter keywords are checked against every
+ * word, which is done in parallel once there are enough words, and the words found are kept for the
+ * next search using the same keyword. Words close to a misspelled keyword are found through a
+ * sorted dictionary of the words instead.</p>
+ */
+public class KeywordIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int RECENT_WORDS_SIZE = 16;
+    private final Map<String, IdList> postings = new HashMap<>();
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+    private final Map<String, List<String>> recentWords = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > RECENT_WORDS_SIZE;
+        }
+    };
+    private String[] vocabulary;
+    private TermDictionary dictionary;
+
+    /**
+     * Indexes the words of a task appended to the list.
+     *
+     * @param id The id of the task, greater than that of every task indexed before.
+     * @param description The description of the task.
+     */
+    public void add(int id, String description) {
+        for (String word : splitIntoWords(description)) {
+            IdList ids = postings.get(word);
+            if (ids == null) {
+                ids = new IdList();
+                postings.put(word, ids);
+                addTrigrams(word);
+                if (dictionary != null) {
+                    dictionary.add(word);
+                }
+                forgetVocabulary();
+            }
+            ids.append(id);
+        }
+    }
+
+    /**
+     * Removes the words of a task deleted from the list.
+     *
+     * @param id The id of the task.
+     * @param description The description of the task.
+     */
+    public void remove(int id, String description) {
+        for (String word : splitIntoWords(description)) {
+            IdList ids = postings.get(word);
+            if (ids != null && ids.remove(id) && ids.size() == 0) {
+                postings.remove(word);
+                removeTrigrams(word);
+                if (dictionary != null) {
+                    dictionary.remove(word);
+                }
+                forgetVocabulary();
+            }
+        }
+    }
+
+    /**
+     * Drops the copy of the indexed words and the words found in it, once a word is added or removed.
+     */
+    private void forgetVocabulary() {
+        vocabulary = null;
+        recentWords.clear();
+    }
+
+    private void addTrigrams(String word) {
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            wordsByTrigram.computeIfAbsent(word.substring(i, i + GRAM_LENGTH), key -> new HashSet<>()).add(word);
+        }
+    }
+
+    private void removeTrigrams(String word) {
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            String trigram = word.substring(i, i + GRAM_LENGTH);
+            Set<String> words = wordsByTrigram.get(trigram);
+            if (words != null && words.remove(word) && words.isEmpty()) {
+                wordsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Estimates how many tasks contain a keyword from the number of tasks of each word containing it.
+     * Keywords shorter than a trigram are not estimated, as that would take a scan of every word.
+     *
+     * @param keyword The lowercased, non-empty keyword.
+     * @param taskCount The number of tasks in the list, returned when the keyword is not estimated.
+     * @return An upper bound on the number of tasks containing the keyword.
+     */
+    public int estimate(String keyword, int taskCount) {
+        if (keyword.length() < GRAM_LENGTH) {
+            return taskCount;
+        }
+        long count = 0;
+        for (String word : findCandidateWords(keyword)) {
+            if (word.contains(keyword)) {
+                count += postings.get(word).size();
+            }
+        }
+        return (int) Math.min(count, taskCount);
+    }
+
+    /**
+     * Returns the amount of work {@link #findAll(String[])} and {@link #findAny(String[])} spend on a keyword.
+     *
+     * @param keyword The lowercased, non-empty keyword.
+     * @param estimate The estimated number of tasks containing the keyword.
+     * @return The estimate, plus the number of words checked if the keyword is shorter than a trigram.
+     */
+    public int estimateCost(String keyword, int estimate) {
+        return keyword.length() < GRAM_LENGTH ? postings.size() + estimate : estimate;
+    }
+
+    /**
+     * Finds the tasks whose description contains every keyword.
+     *
+     * @param keywords The lowercased, non-empty keywords.
+     * @return The ids of the matching tasks in ascending order.
+     */
+    public int[] findAll(String[] keywords) {
+        int[][] matches = new int[keywords.length][];
+        for (int i = 0; i < keywords.length; i++) {
+            matches[i] = find(keywords[i]);
+        }
+        Arrays.sort(matches, (first, second) -> Integer.compare(first.length, second.length));
+        int[] result = matches[0];
+        for (int i = 1; i < matches.length && result.length > 0; i++) {
+            result = IdList.intersect(result, matches[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the tasks whose description contains at least one keyword.
+     *
+     * @param keywords The lowercased, non-empty keywords.
+     * @return The ids of the matching tasks in ascending order.
+     */
+    public int[] findAny(String[] keywords) {
+        List<IdList> matches = new ArrayList<>();
+        for (String keyword : keywords) {
+            collectWordsContaining(keyword, matches);
+        }
+        return IdList.union(matches);
+    }
+
+    /**
+     * Finds the tasks whose description contains the keyword.
+     *
+     * @param keyword The lowercased, non-empty keyword.
+     * @return The ids of the matching tasks in ascending order.
+     */
+    private int[] find(String keyword) {
+        List<IdList> matches = new ArrayList<>();
+        collectWordsContaining(keyword, matches);
+        return IdList.union(matches);
+    }
+
+    /**
+     * Collects the tasks of every word that contains the keyword.
+     */
+    private void collectWordsContaining(String keyword, List<IdList> matches) {
+        for (String word : findWordsContaining(keyword)) {
+            matches.add(postings.get(word));
+        }
+    }
+
+    /**
+     * Finds the indexed words that contain a keyword. The words found for the last few keywords shorter
+     * than a trigram are kept until a word is added or removed, since finding them checks every word and
+     * a search that is ranked or paged through looks them up again.
+     *
+     * @param keyword The lowercased, non-empty keyword.
+     * @return The words containing the keyword, which must not be changed.
+     */
+    List<String> findWordsContaining(String keyword) {
+        if (keyword.length() < GRAM_LENGTH) {
+            List<String> words = recentWords.get(keyword);
+            if (words == null) {
+                words = ParallelScan.filter(getVocabulary(), word -> word.contains(keyword));
+                recentWords.put(keyword, words);
+            }
+            return words;
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : findCandidateWords(keyword)) {
+            if (word.contains(keyword)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns the tasks containing an indexed word.
+     *
+     * @param word An indexed word.
+     * @return The ids of the tasks containing the word, which must not be changed.
+     */
+    IdList getPostings(String word) {
+        return postings.get(word);
+    }
+
+    /**
+     * Finds the indexed words that contain a keyword or are within a few edits of it. The words are
+     * found through a sorted dictionary of every word, built on the first such search and kept up to
+     * date after, and those found for the last few keywords are kept until a word is added or removed.
+     *
+     * @param keyword The lowercased, non-empty keyword.
+     * @param maxEdits The most characters inserted, deleted or replaced to turn a word into the keyword.
+     * @return The distinct words found, which must not be changed.
+     */
+    List<String> findWordsNear(String keyword, int maxEdits) {
+        String key = keyword + "~" + maxEdits;
+        List<String> words = recentWords.get(key);
+        if (words != null) {
+            return words;
+        }
+        if (dictionary == null) {
+            dictionary = new TermDictionary();
+            for (String word : postings.keySet()) {
+                dictionary.add(word);
+            }
+        }
+        Set<String> found = new LinkedHashSet<>(findWordsContaining(keyword));
+        found.addAll(dictionary.find(keyword, maxEdits));
+        words = new ArrayList<>(found);
+        recentWords.put(key, words);
+        return words;
+    }
+
+    /**
+     * Finds the tasks containing any of a number of indexed words.
+     *
+     * @param words Indexed words.
+     * @return The ids of the tasks in ascending order.
+     */
+    int[] findAnyWord(List<String> words) {
+        List<IdList> matches = new ArrayList<>();
+        for (String word : words) {
+            matches.add(postings.get(word));
+        }
+        return IdList.union(matches);
+    }
+
+    /**
+     * Estimates how many tasks contain any of a number of indexed words.
+     *
+     * @param words Indexed words.
+     * @param taskCount The number of tasks in the list.
+     * @return An upper bound on the number of tasks containing the words.
+     */
+    int estimateAnyWord(List<String> words, int taskCount) {
+        long count = 0;
+        for (String word : words) {
+            count += postings.get(word).size();
+        }
+        return (int) Math.min(count, taskCount);
+    }
+
+    /**
+     * Returns every indexed word, copied into an array that is kept until a word is added or removed.
+     *
+     * @return The indexed words.
+     */
+    private String[] getVocabulary() {
+        if (vocabulary == null) {
+            vocabulary = postings.keySet().toArray(new String[0]);
+        }
+        return vocabulary;
+    }
+
+    /**
+     * Returns the words sharing the rarest trigram of the keyword, which include every word
+     * containing the keyword.
+     *
+     * @param keyword A keyword of at least three characters.
+     * @return The candidate words, possibly including words that do not contain the keyword.
+     */
+    private Set<String> findCandidateWords(String keyword) {
+        Set<String> rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= keyword.length(); i++) {
+            Set<String> words = wordsByTrigram.get(keyword.substring(i, i + GRAM_LENGTH));
+            if (words == null) {
+                return Set.of();
+            }
+            if (rarest == null || words.size() < rarest.size()) {
+                rarest = words;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * Splits a description into its distinct lowercased words.
+     *
+     * @param description The description of a task.
+     * @return The distinct words, in the order they first appear.
+     */
+    static List<String> splitIntoWords(String description) {
+        return new ArrayList<>(countWords(description).keySet());
+    }
+
+    /**
+     * Counts how many times each lowercased word appears in a description.
+     *
+     * @param description The description of a task.
+     * @return The number of times each distinct word appears, in the order the words first appear.
+     */
+    static Map<String, Integer> countWords(String description) {
+        String lowercased = description.toLowerCase();
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int start = -1;
+        for (int i = 0; i <= lowercased.length(); i++) {
+            boolean isBoundary = i == lowercased.length() || isWhitespace(lowercased.charAt(i));
+            if (!isBoundary && start < 0) {
+                start = i;
+            } else if (isBoundary && start >= 0) {
+                counts.merge(lowercased.substring(start, i), 1, Integer::sum);
+                start = -1;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Checks for the same whitespace the parser splits keywords at.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,165 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Runs the scans that no index can narrow down, such as checking a short keyword against every indexed
+ * word, on the fork-join pool once they are large enough to gain from it.
+ *
+ * <p>The size from which a parallel scan pays off is measured once at startup, on a thread of its own, by
+ * timing a sample scan both ways. Until it is known, below it, and on machines with a single core, scans
+ * stay sequential. Parallel scans split their input into ranges and join the results back in input order,
+ * so callers see the same results either way. Sorting costs differently from scanning, so sorts go
+ * parallel from a fixed size instead.</p>
+ */
+final class ParallelScan {
+    private static final int MIN_THRESHOLD = 16 * 1024;
+    private static final int MAX_THRESHOLD = 1 << 24;
+    private static final int SORT_THRESHOLD = 64 * 1024;
+    private static final int MIN_LEAF_SIZE = 4 * 1024;
+    private static final int LEAVES_PER_THREAD = 4;
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int SAMPLE_RUNS = 8;
+    private static volatile int measuredThreshold = Integer.MAX_VALUE;
+    private static boolean isMeasuring;
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Picks the items that pass a test, scanning in parallel if there are enough of them.
+     *
+     * @param items The items to scan.
+     * @param test The test, which must be safe to run from several threads at once.
+     * @return The items that pass, in the order they were given.
+     */
+    static <T> List<T> filter(T[] items, Predicate<? super T> test) {
+        return filter(items, test, measuredThreshold);
+    }
+
+    /**
+     * Picks the items that pass a test, scanning in parallel from the given number of items.
+     *
+     * @param items The items to scan.
+     * @param test The test, which must be safe to run from several threads at once.
+     * @param threshold The fewest items scanned in parallel.
+     * @return The items that pass, in the order they were given.
+     */
+    static <T> List<T> filter(T[] items, Predicate<? super T> test, int threshold) {
+        if (items.length < threshold) {
+            return new Scan<>(items, test, 0, items.length, items.length).compute();
+        }
+        int leafSize = Math.max(MIN_LEAF_SIZE, items.length / (ForkJoinPool.getCommonPoolParallelism()
+                * LEAVES_PER_THREAD));
+        return ForkJoinPool.commonPool().invoke(new Scan<>(items, test, 0, items.length, leafSize));
+    }
+
+    /**
+     * Sorts the first ids of an array in place, in parallel if there are enough of them.
+     *
+     * @param ids The ids to sort.
+     * @param count How many of the ids are used.
+     */
+    static void sort(int[] ids, int count) {
+        if (count < SORT_THRESHOLD) {
+            Arrays.sort(ids, 0, count);
+        } else {
+            Arrays.parallelSort(ids, 0, count);
+        }
+    }
+
+    /**
+     * Starts measuring the fewest items worth scanning in parallel on a daemon thread, unless it was
+     * started before. The measurement is not made while the class is being initialised, as the pool
+     * threads running the sample scan would wait for that initialisation to finish.
+     */
+    static synchronized void measureThresholdInBackground() {
+        if (isMeasuring) {
+            return;
+        }
+        isMeasuring = true;
+        Thread thread = new Thread(() -> measuredThreshold = measureThreshold(), "eric-scan-threshold");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Finds the number of items from which a parallel scan is faster than a sequential one, by
+     * scanning a sample of words for a single character both ways and keeping the fastest run of each.
+     *
+     * @return The fewest items worth scanning in parallel.
+     */
+    private static int measureThreshold() {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (parallelism < 2) {
+            return Integer.MAX_VALUE;
+        }
+        String[] sample = new String[SAMPLE_SIZE];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = Integer.toString(i * 7919);
+        }
+        Predicate<String> test = word -> word.contains("7");
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        for (int run = 0; run < SAMPLE_RUNS; run++) {
+            long start = System.nanoTime();
+            filter(sample, test, Integer.MAX_VALUE);
+            long middle = System.nanoTime();
+            filter(sample, test, 0);
+            long end = System.nanoTime();
+            sequential = Math.min(sequential, middle - start);
+            parallel = Math.min(parallel, end - middle);
+        }
+
+        // A parallel scan of n items costs a fixed overhead plus n / parallelism of the sequential cost
+        double nanosPerItem = Math.max((double) sequential / SAMPLE_SIZE, 1e-3);
+        double overhead = Math.max(parallel - (double) sequential / parallelism, 0);
+        double breakEven = overhead / (nanosPerItem * (1 - 1.0 / parallelism));
+        return (int) Math.min(Math.max(breakEven, MIN_THRESHOLD), MAX_THRESHOLD);
+    }
+
+    /**
+     * Scans a range of items, splitting it in halves until the ranges are small enough to scan directly.
+     */
+    private static class Scan<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] items;
+        private final Predicate<? super T> test;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        Scan(T[] items, Predicate<? super T> test, int from, int to, int leafSize) {
+            this.items = items;
+            this.test = test;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= leafSize) {
+                List<T> passed = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (test.test(items[i])) {
+                        passed.add(items[i]);
+                    }
+                }
+                return passed;
+            }
+            int middle = (from + to) >>> 1;
+            Scan<T> left = new Scan<>(items, test, from, middle, leafSize);
+            left.fork();
+            List<T> right = new Scan<>(items, test, middle, to, leafSize).compute();
+            List<T> passed = left.join();
+            passed.addAll(right);
+            return passed;
+        }
+    }
+}
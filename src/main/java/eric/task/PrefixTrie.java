@@ -0,0 +1,162 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps a set of words in a trie so that the words starting with what the user is typing are found in
+ * microseconds, however many words there are.
+ *
+ * <p>Each node keeps its children in arrays sorted by character and counts the words below it, so that
+ * nodes left without words are dropped as soon as their last word is removed. Finding words walks down the
+ * prefix and then through the nodes below it in order, stopping once enough words are found, so a search
+ * takes time in proportion to the length of the words found rather than the number of words kept.</p>
+ *
+ * <p>Words are added as tasks change while suggestions are looked up on another thread, so every method
+ * holds the lock of the trie.</p>
+ */
+public class PrefixTrie {
+    private final Node root = new Node();
+
+    /**
+     * Adds a word, unless the trie already holds it.
+     *
+     * @param word The word to add.
+     */
+    public synchronized void add(String word) {
+        if (contains(word)) {
+            return;
+        }
+        Node node = root;
+        node.wordCount++;
+        for (int i = 0; i < word.length(); i++) {
+            node = node.childOrAdd(word.charAt(i));
+            node.wordCount++;
+        }
+        node.isWord = true;
+    }
+
+    /**
+     * Removes a word, if the trie holds it.
+     *
+     * @param word The word to remove.
+     */
+    public synchronized void remove(String word) {
+        if (!contains(word)) {
+            return;
+        }
+        Node node = root;
+        node.wordCount--;
+        for (int i = 0; i < word.length(); i++) {
+            Node child = node.child(word.charAt(i));
+            child.wordCount--;
+            if (child.wordCount == 0) {
+                node.removeChild(word.charAt(i));
+                return;
+            }
+            node = child;
+        }
+        node.isWord = false;
+    }
+
+    /**
+     * Checks whether the trie holds a word.
+     *
+     * @param word The word to check.
+     * @return True if the word was added and not removed since.
+     */
+    public synchronized boolean contains(String word) {
+        Node node = find(word);
+        return node != null && node.isWord;
+    }
+
+    /**
+     * Returns the number of words held.
+     *
+     * @return The number of words.
+     */
+    public synchronized int size() {
+        return root.wordCount;
+    }
+
+    /**
+     * Finds the words starting with a prefix, in sorted order.
+     *
+     * @param prefix The start of the words to find, which is found itself if it is a word.
+     * @param count The most words to return.
+     * @return The first words starting with the prefix.
+     */
+    public synchronized List<String> complete(String prefix, int count) {
+        List<String> words = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null && count > 0) {
+            collect(node, new StringBuilder(prefix), count, words);
+        }
+        return words;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, StringBuilder word, int count, List<String> words) {
+        if (node.isWord) {
+            words.add(word.toString());
+        }
+        for (int i = 0; i < node.size && words.size() < count; i++) {
+            word.append(node.keys[i]);
+            collect(node.children[i], word, count, words);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    /**
+     * Holds the words starting with the characters on the path to the node.
+     */
+    private static class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        private int wordCount;
+        private boolean isWord;
+
+        Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        Node childOrAdd(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            if (position >= 0) {
+                return children[position];
+            }
+            position = -position - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, keys.length);
+            }
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(children, position, children, position + 1, size - position);
+            Node child = new Node();
+            keys[position] = key;
+            children[position] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(children, position + 1, children, position, size - position - 1);
+            size--;
+            children[size] = null;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package eric.task;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a search of the task list: the keywords to match, the dates and filters that narrow it
+ * down, and the page of results to show.
+ *
+ * <p>The keywords are normalised once, when the query is made, into the distinct lowercased keywords
+ * actually matched and into the expression they are matched with, so that planning and running the
+ * search never redo it. A query can also be made from an expression of keywords combined with AND, OR
+ * and NOT.</p>
+ */
+public class Query {
+    private final String[] keywords;
+    private final String[] searchKeywords;
+    private final KeywordExpression expression;
+    private final boolean isExpression;
+    private final LocalDate searchDate;
+    private final DateRange searchRange;
+    private final boolean isStrict;
+    private final int maxEdits;
+    private final boolean isTodo;
+    private final boolean isDeadline;
+    private final boolean isEvent;
+    private final boolean isDone;
+    private final boolean isUndone;
+    private final boolean isSorted;
+    private final boolean isRanked;
+    private final int offset;
+    private final int limit;
+
+    /**
+     * Initialises a query matching a list of keywords.
+     *
+     * @param keywords The keywords as the user entered them, where empty keywords are ignored.
+     * @param searchDate The date to find tasks on, or null.
+     * @param searchRange The range of dates to find tasks within, or null.
+     * @param isStrict Whether every keyword must match rather than any of them.
+     * @param maxEdits The most edits a word may be from a keyword to match it, or 0 to allow no typos.
+     * @param isTodo Whether to search todo tasks.
+     * @param isDeadline Whether to search deadline tasks.
+     * @param isEvent Whether to search event tasks.
+     * @param isDone Whether to search only done tasks.
+     * @param isUndone Whether to search only undone tasks.
+     * @param isSorted Whether to sort results alphabetically.
+     * @param isRanked Whether to order results by how well they match the keywords, best first.
+     * @param offset The number of matching tasks to skip.
+     * @param limit The most tasks to return.
+     */
+    public Query(String[] keywords, LocalDate searchDate, DateRange searchRange, boolean isStrict, int maxEdits,
+                 boolean isTodo, boolean isDeadline, boolean isEvent, boolean isDone, boolean isUndone,
+                 boolean isSorted, boolean isRanked, int offset, int limit) {
+        this(keywords, KeywordExpression.of(keywords == null ? new String[0] : keywords, isStrict, maxEdits), false,
+                searchDate, searchRange, isStrict, maxEdits, isTodo, isDeadline, isEvent, isDone, isUndone,
+                isSorted, isRanked, offset, limit);
+    }
+
+    /**
+     * Initialises a query matching an expression of keywords.
+     *
+     * @param expression The expression descriptions must match, which includes the typos each keyword allows.
+     * @param searchDate The date to find tasks on, or null.
+     * @param searchRange The range of dates to find tasks within, or null.
+     * @param isTodo Whether to search todo tasks.
+     * @param isDeadline Whether to search deadline tasks.
+     * @param isEvent Whether to search event tasks.
+     * @param isDone Whether to search only done tasks.
+     * @param isUndone Whether to search only undone tasks.
+     * @param isSorted Whether to sort results alphabetically.
+     * @param isRanked Whether to order results by how well they match the keywords, best first.
+     * @param offset The number of matching tasks to skip.
+     * @param limit The most tasks to return.
+     */
+    public Query(KeywordExpression expression, LocalDate searchDate, DateRange searchRange, boolean isTodo,
+                 boolean isDeadline, boolean isEvent, boolean isDone, boolean isUndone, boolean isSorted,
+                 boolean isRanked, int offset, int limit) {
+        this(new String[] {expression.toString()}, expression, true, searchDate, searchRange, false, 0, isTodo,
+                isDeadline, isEvent, isDone, isUndone, isSorted, isRanked, offset, limit);
+    }
+
+    private Query(String[] keywords, KeywordExpression expression, boolean isExpression, LocalDate searchDate,
+                  DateRange searchRange, boolean isStrict, int maxEdits, boolean isTodo, boolean isDeadline,
+                  boolean isEvent, boolean isDone, boolean isUndone, boolean isSorted, boolean isRanked, int offset,
+                  int limit) {
+        assert offset >= 0 && limit >= 0 : "A page should not start or end before the first result";
+        this.keywords = keywords == null ? new String[0] : keywords.clone();
+        this.searchKeywords = isExpression ? new String[0] : Arrays.stream(this.keywords)
+                .filter(keyword -> !keyword.isEmpty())
+                .map(String::toLowerCase)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        this.expression = expression;
+        this.isExpression = isExpression;
+        this.searchDate = searchDate;
+        this.searchRange = searchRange;
+        this.isStrict = isStrict;
+        this.maxEdits = maxEdits;
+        this.isTodo = isTodo;
+        this.isDeadline = isDeadline;
+        this.isEvent = isEvent;
+        this.isDone = isDone;
+        this.isUndone = isUndone;
+        this.isSorted = isSorted;
+        this.isRanked = isRanked;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    public String[] getKeywords() {
+        return keywords.clone();
+    }
+
+    /**
+     * Returns the keywords matched against task descriptions.
+     *
+     * @return The distinct, non-empty keywords in lower case and in alphabetical order.
+     */
+    String[] getSearchKeywords() {
+        return searchKeywords;
+    }
+
+    /**
+     * Returns the expression descriptions are matched against.
+     *
+     * @return The keyword expression, or null if the query has no keywords.
+     */
+    KeywordExpression getExpression() {
+        return expression;
+    }
+
+    public boolean isExpression() {
+        return isExpression;
+    }
+
+    public LocalDate getSearchDate() {
+        return searchDate;
+    }
+
+    public DateRange getSearchRange() {
+        return searchRange;
+    }
+
+    public boolean isStrict() {
+        return isStrict;
+    }
+
+    /**
+     * Returns how many typos a keyword list allows. An expression shows the typos each of its keywords
+     * allows instead.
+     *
+     * @return The most edits a word may be from a keyword to match it, or 0 if no typos are allowed.
+     */
+    public int getMaxEdits() {
+        return maxEdits;
+    }
+
+    public boolean isTodo() {
+        return isTodo;
+    }
+
+    public boolean isDeadline() {
+        return isDeadline;
+    }
+
+    public boolean isEvent() {
+        return isEvent;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    public boolean isUndone() {
+        return isUndone;
+    }
+
+    public boolean isSorted() {
+        return isSorted;
+    }
+
+    public boolean isRanked() {
+        return isRanked;
+    }
+
+    /**
+     * Finds the indexed words results are ranked by, which are those matched by keywords that are not
+     * negated.
+     *
+     * @param keywordIndex The keyword index of the list.
+     * @return The words, repeated for each keyword matching them.
+     */
+    List<String> findRankedWords(KeywordIndex keywordIndex) {
+        List<String> words = new ArrayList<>();
+        if (expression != null) {
+            expression.collectWords(keywordIndex, words);
+        }
+        return words;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks whether the query filters by task type or status.
+     *
+     * @return True if any type or status flag is set.
+     */
+    boolean hasTypeOrStatusFilter() {
+        return isTodo || isDeadline || isEvent || isDone || isUndone;
+    }
+
+    /**
+     * Builds the key the results of the query are cached under. Queries that always find the same tasks
+     * in the same order share a key, so the case, order and repetition of keywords do not matter, and
+     * neither does the order of the parts of an expression.
+     *
+     * @return The cache key of the query.
+     */
+    String getCacheKey() {
+        StringBuilder key = new StringBuilder();
+        key.append(expression).append('|').append(searchDate)
+                .append('|').append(searchRange == null ? null : searchRange.getStart())
+                .append('|').append(searchRange == null ? null : searchRange.getEnd())
+                .append('|');
+        boolean[] flags = {isStrict, isTodo, isDeadline, isEvent, isDone, isUndone, isSorted, isRanked};
+        for (boolean flag : flags) {
+            key.append(flag ? '1' : '0');
+        }
+        key.append('|').append(offset).append('|').append(limit);
+        return key.toString();
+    }
+}
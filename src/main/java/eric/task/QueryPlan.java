@@ -0,0 +1,208 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Decides the order in which the filters of a query are applied, from statistics kept by the indexes.
+ *
+ * <p>Each filter is given an estimate of how many tasks it keeps and of the work it takes to find them
+ * through its index. The filter expected to keep the fewest tasks runs first. Every later filter then
+ * either finds its own tasks through its index and keeps those also found so far, or, when only a few
+ * tasks are left, checks each of them directly, so that an unselective filter does not cost more than
+ * the tasks it has left to check. Keywords combined with AND, OR and NOT are narrowed down the same
+ * way one part of the expression at a time.</p>
+ */
+class QueryPlan {
+    /** How many times more a task checked directly costs than an id found through an index. */
+    private static final int CHECK_COST = 8;
+
+    private final Query query;
+    private final List<Step> steps = new ArrayList<>();
+    private final KeywordIndex keywordIndex;
+    private final DateIndex dateIndex;
+    private final FilterIndex filterIndex;
+    private final int taskCount;
+    private IdBitmap selected;
+
+    /**
+     * Kinds of filter a query can apply.
+     */
+    private enum Kind {
+        FILTER, KEYWORDS, DATE, RANGE
+    }
+
+    /**
+     * Holds one filter of the plan with its estimates and how it is applied.
+     */
+    private static class Step {
+        private final Kind kind;
+        private final int estimate;
+        private final int cost;
+        private boolean isChecked;
+
+        Step(Kind kind, int estimate, int cost) {
+            this.kind = kind;
+            this.estimate = estimate;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Plans a query against the indexes of a list.
+     *
+     * @param query The query.
+     * @param keywordIndex The keyword index of the list.
+     * @param dateIndex The date index of the list.
+     * @param filterIndex The type and status index of the list.
+     * @param taskCount The number of tasks in the list.
+     */
+    QueryPlan(Query query, KeywordIndex keywordIndex, DateIndex dateIndex, FilterIndex filterIndex, int taskCount) {
+        this.query = query;
+        this.keywordIndex = keywordIndex;
+        this.dateIndex = dateIndex;
+        this.filterIndex = filterIndex;
+        this.taskCount = taskCount;
+        if (query.hasTypeOrStatusFilter()) {
+            selected = filterIndex.select(query.isTodo(), query.isDeadline(), query.isEvent(), query.isDone(),
+                    query.isUndone());
+            int count = selected.cardinality();
+            steps.add(new Step(Kind.FILTER, count, count));
+        }
+        if (query.getExpression() != null) {
+            steps.add(planKeywords());
+        }
+        if (query.getSearchDate() != null) {
+            int estimate = dateIndex.estimateOn(query.getSearchDate());
+            steps.add(new Step(Kind.DATE, estimate, estimate));
+        }
+        if (query.getSearchRange() != null) {
+            int estimate = dateIndex.estimateBetween(query.getSearchRange());
+            steps.add(new Step(Kind.RANGE, estimate, estimate));
+        }
+        steps.sort(Comparator.<Step>comparingInt(step -> step.estimate).thenComparingInt(step -> step.cost));
+        chooseChecks();
+    }
+
+    /**
+     * Estimates the keyword filter from the estimates of the parts of its expression. Strict keywords keep
+     * at most the tasks of the rarest keyword, while loose keywords keep at most the tasks of all of them.
+     */
+    private Step planKeywords() {
+        KeywordExpression.Context context = new KeywordExpression.Context(keywordIndex, filterIndex, null,
+                taskCount);
+        KeywordExpression expression = query.getExpression();
+        return new Step(Kind.KEYWORDS, expression.estimate(context),
+                (int) Math.min(expression.cost(context), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Decides which filters after the first are checked task by task. A range is always found through
+     * its index, since that is what puts its results in date order.
+     */
+    private void chooseChecks() {
+        long remaining = Long.MAX_VALUE;
+        for (Step step : steps) {
+            boolean isCheckable = step.kind == Kind.KEYWORDS || step.kind == Kind.DATE;
+            step.isChecked = isCheckable && remaining != Long.MAX_VALUE && remaining * CHECK_COST < step.cost;
+            remaining = Math.min(remaining, step.estimate);
+        }
+    }
+
+    /**
+     * Checks whether the plan applies any filter.
+     *
+     * @return True if every task matches the query.
+     */
+    boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Runs the plan.
+     *
+     * @param taskById Looks up a task in the list by its id, for the filters checked task by task.
+     * @return The ids of the matching tasks, in date order for a range and in list order otherwise,
+     *     or null if every task matches.
+     */
+    int[] execute(IntFunction<Task> taskById) {
+        int[] matches = null;
+        for (Step step : steps) {
+            if (matches != null && matches.length == 0) {
+                return matches;
+            }
+            switch (step.kind) {
+            case FILTER:
+                matches = matches == null ? selected.toArray() : FilterIndex.retain(matches, selected);
+                break;
+            case KEYWORDS:
+                KeywordExpression.Context context = new KeywordExpression.Context(keywordIndex, filterIndex,
+                        taskById, taskCount);
+                if (matches == null) {
+                    matches = query.getExpression().evaluate(context);
+                } else {
+                    matches = step.isChecked ? query.getExpression().check(matches, context)
+                            : query.getExpression().narrow(matches, context);
+                }
+                break;
+            case DATE:
+                matches = step.isChecked
+                        ? keep(matches, taskById, task -> DateIndex.fallsOn(task, query.getSearchDate()))
+                        : retain(matches, dateIndex.findOn(query.getSearchDate()));
+                break;
+            case RANGE:
+                int[] inRange = dateIndex.findBetween(query.getSearchRange());
+                // Only one range is ever applied, so the tasks found before it are still in list order
+                matches = matches == null ? inRange : IdList.retain(inRange, matches);
+                break;
+            default:
+                throw new AssertionError(step.kind);
+            }
+        }
+        return matches;
+    }
+
+    private static int[] retain(int[] matches, int[] found) {
+        return matches == null ? found : IdList.retain(matches, found);
+    }
+
+    private static int[] keep(int[] matches, IntFunction<Task> taskById, Predicate<Task> test) {
+        return Arrays.stream(matches).filter(id -> test.test(taskById.apply(id))).toArray();
+    }
+
+    /**
+     * Describes each filter of the plan in the order it is applied.
+     *
+     * @return One line for each filter.
+     */
+    List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Step step : steps) {
+            String method = step.isChecked ? "checked on each remaining task" : "found through the index";
+            lines.add(describeFilter(step.kind) + ", " + method + " (estimate: " + step.estimate + ")");
+        }
+        return lines;
+    }
+
+    private String describeFilter(Kind kind) {
+        switch (kind) {
+        case FILTER:
+            return "Type and status filter";
+        case KEYWORDS:
+            if (query.isExpression()) {
+                return "Keywords matching " + query.getExpression();
+            }
+            return (query.isStrict() ? "All of the keywords " : "Any of the keywords ")
+                    + String.join(", ", query.getSearchKeywords());
+        case DATE:
+            return "Tasks on " + query.getSearchDate();
+        case RANGE:
+            return "Tasks between " + query.getSearchRange();
+        default:
+            throw new AssertionError(kind);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package eric.task;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the statistics needed to rank tasks by how well their descriptions match a search, using the
+ * BM25 relevance score.
+ *
+ * <p>A word scores higher the more often a description repeats it and the fewer tasks contain it, and
+ * descriptions longer than average score lower. The number of tasks containing a word comes from the
+ * keyword index, so this index only keeps the length of each description and the counts of words a
+ * description repeats, which are rare. A keyword is scored as every word it matches, which for
+ * {@code find} is every word containing it.</p>
+ *
+ * <p>Only the best tasks asked for are kept while scoring, in a heap of that size, so the rest of the
+ * matching tasks are never sorted.</p>
+ */
+public class RelevanceIndex {
+    /** How quickly repeating a word stops raising the score. */
+    private static final double TERM_SATURATION = 1.2;
+    /** How much the length of a description lowers its score. */
+    private static final double LENGTH_WEIGHT = 0.75;
+
+    private final Map<String, Map<Integer, Integer>> repeatsByWord = new HashMap<>();
+    private int[] lengthById = new int[16];
+    private long totalLength;
+    private int size;
+
+    /**
+     * Indexes the words of a task appended to the list.
+     *
+     * @param id The id of the task, greater than that of every task indexed before.
+     * @param description The description of the task.
+     */
+    public void add(int id, String description) {
+        int length = 0;
+        for (Map.Entry<String, Integer> count : KeywordIndex.countWords(description).entrySet()) {
+            length += count.getValue();
+            if (count.getValue() > 1) {
+                repeatsByWord.computeIfAbsent(count.getKey(), word -> new HashMap<>()).put(id, count.getValue());
+            }
+        }
+        if (id >= lengthById.length) {
+            lengthById = Arrays.copyOf(lengthById, Math.max(id + 1, lengthById.length * 2));
+        }
+        lengthById[id] = length;
+        totalLength += length;
+        size++;
+    }
+
+    /**
+     * Removes the words of a task deleted from the list.
+     *
+     * @param id The id of the task.
+     * @param description The description of the task.
+     */
+    public void remove(int id, String description) {
+        for (Map.Entry<String, Integer> count : KeywordIndex.countWords(description).entrySet()) {
+            Map<Integer, Integer> repeats = repeatsByWord.get(count.getKey());
+            if (repeats != null && repeats.remove(id) != null && repeats.isEmpty()) {
+                repeatsByWord.remove(count.getKey());
+            }
+        }
+        totalLength -= lengthById[id];
+        lengthById[id] = 0;
+        size--;
+    }
+
+    /**
+     * Ranks tasks by how well they match keywords.
+     *
+     * @param words The indexed words matched by the keywords, repeated for each keyword matching them.
+     * @param candidates The ids of the tasks to rank, in any order.
+     * @param count The most tasks to return.
+     * @param keywordIndex The keyword index of the list.
+     * @return The ids of the best candidates, best first, with equal scores in list order. Candidates
+     *     containing none of the words score nothing.
+     */
+    public int[] rank(List<String> words, int[] candidates, int count, KeywordIndex keywordIndex) {
+        int[] ids = candidates;
+        if (!isAscending(ids)) {
+            ids = ids.clone();
+            Arrays.sort(ids);
+        }
+        double[] scores = new double[ids.length];
+        double averageLength = (double) totalLength / size;
+        for (String word : words) {
+            addScores(word, keywordIndex.getPostings(word), ids, scores, averageLength);
+        }
+        return selectBest(ids, scores, count);
+    }
+
+    /**
+     * Adds the score of a word to the candidates containing it. A word contained by far fewer tasks than
+     * there are candidates looks its tasks up among the candidates, and otherwise both are walked together.
+     */
+    private void addScores(String word, IdList postings, int[] ids, double[] scores, double averageLength) {
+        double weight = Math.log(1 + (size - postings.size() + 0.5) / (postings.size() + 0.5));
+        Map<Integer, Integer> repeats = repeatsByWord.isEmpty() ? Map.of()
+                : repeatsByWord.getOrDefault(word, Map.of());
+        int searchSteps = 32 - Integer.numberOfLeadingZeros(ids.length);
+        if ((long) postings.size() * searchSteps < (long) postings.size() + ids.length) {
+            for (int i = 0; i < postings.size(); i++) {
+                int position = Arrays.binarySearch(ids, postings.get(i));
+                if (position >= 0) {
+                    scores[position] += score(weight, ids[position], repeats, averageLength);
+                }
+            }
+            return;
+        }
+        int i = 0;
+        int position = 0;
+        while (i < postings.size() && position < ids.length) {
+            int id = postings.get(i);
+            if (id < ids[position]) {
+                i++;
+            } else if (id > ids[position]) {
+                position++;
+            } else {
+                scores[position] += score(weight, id, repeats, averageLength);
+                i++;
+                position++;
+            }
+        }
+    }
+
+    private double score(double weight, int id, Map<Integer, Integer> repeats, double averageLength) {
+        int frequency = repeats.isEmpty() ? 1 : repeats.getOrDefault(id, 1);
+        double lengthNorm = 1 - LENGTH_WEIGHT + LENGTH_WEIGHT * lengthById[id] / averageLength;
+        return weight * frequency * (TERM_SATURATION + 1) / (frequency + TERM_SATURATION * lengthNorm);
+    }
+
+    /**
+     * Keeps the best scores in a heap whose root is the worst of them, then orders what is left.
+     */
+    private static int[] selectBest(int[] ids, double[] scores, int count) {
+        int wanted = Math.min(count, ids.length);
+        if (wanted == 0) {
+            return new int[0];
+        }
+        PriorityQueue<Integer> best = new PriorityQueue<>(wanted, (first, second) -> scores[first] != scores[second]
+                ? Double.compare(scores[first], scores[second]) : Integer.compare(second, first));
+        for (int position = 0; position < ids.length; position++) {
+            if (best.size() < wanted) {
+                best.add(position);
+            } else if (scores[position] > scores[best.peek()]) {
+                // Later candidates come later in the list, so they only replace a strictly lower score
+                best.poll();
+                best.add(position);
+            }
+        }
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = ids[best.poll()];
+        }
+        return result;
+    }
+
+    private static boolean isAscending(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i - 1] >= ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package eric.task;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the results of the most recently used searches, so that a search repeated before the
+ * list changes is answered without looking at the tasks again.
+ *
+ * <p>Results are only valid for the version of the list they were found in. The whole cache is
+ * dropped as soon as a search is made against a newer version.</p>
+ */
+public class SearchCache {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, List<Task>> results;
+    private long version = -1;
+    private long hits;
+    private long misses;
+
+    /**
+     * Initialises a cache holding the results of the last {@value #DEFAULT_CAPACITY} searches.
+     */
+    public SearchCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initialises a cache holding the results of a number of searches.
+     *
+     * @param capacity The most searches to remember before the least recently used is forgotten.
+     */
+    public SearchCache(int capacity) {
+        assert capacity > 0 : "A search cache should hold at least one search";
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Task>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the results of a search if it was made against the same version of the list.
+     *
+     * @param key The cache key of the query.
+     * @param listVersion The current modification version of the list.
+     * @return The cached results, or null if the search has to be made.
+     */
+    public List<Task> get(String key, long listVersion) {
+        if (listVersion != version) {
+            results.clear();
+            version = listVersion;
+        }
+        List<Task> cached = results.get(key);
+        if (cached == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return cached;
+    }
+
+    /**
+     * Remembers the results of a search made against the current version of the list.
+     *
+     * @param key The cache key of the query.
+     * @param found The results of the search, which cannot be changed.
+     */
+    public void put(String key, List<Task> found) {
+        results.put(key, found);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
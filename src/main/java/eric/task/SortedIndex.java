@@ -0,0 +1,169 @@
+package eric.task;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Keeps the tasks ordered by description, ignoring case, so that sorted searches do not sort their
+ * results every time.
+ *
+ * <p>Each description is folded once into a collation key whose natural order is the order of
+ * {@link String#compareToIgnoreCase(String)}. Tasks with equal keys are kept in list order, as the
+ * stable sort used before did.</p>
+ */
+public class SortedIndex {
+    private final TreeMap<String, IdList> idsByKey = new TreeMap<>();
+    private final Map<Integer, String> keysById = new HashMap<>();
+    private int size;
+
+    /**
+     * Indexes a task appended to the list.
+     *
+     * @param id The id of the task, greater than that of every task indexed before.
+     * @param description The description of the task.
+     */
+    public void add(int id, String description) {
+        String key = collationKey(description);
+        idsByKey.computeIfAbsent(key, k -> new IdList()).append(id);
+        keysById.put(id, key);
+        size++;
+    }
+
+    /**
+     * Removes a task deleted from the list.
+     *
+     * @param id The id of the task.
+     */
+    public void remove(int id) {
+        String key = keysById.remove(id);
+        if (key == null) {
+            return;
+        }
+        IdList ids = idsByKey.get(key);
+        if (ids.remove(id) && ids.size() == 0) {
+            idsByKey.remove(key);
+        }
+        size--;
+    }
+
+    /**
+     * Returns every task in sorted order.
+     *
+     * @return The ids of the tasks, sorted by description.
+     */
+    public int[] inOrder() {
+        return inOrder(size);
+    }
+
+    /**
+     * Returns the first tasks in sorted order, without looking past them.
+     *
+     * @param count The most tasks to return.
+     * @return The ids of the first tasks, sorted by description.
+     */
+    public int[] inOrder(int count) {
+        int[] result = new int[Math.min(count, size)];
+        int filled = 0;
+        for (IdList ids : idsByKey.values()) {
+            if (filled == result.length) {
+                break;
+            }
+            int[] sameKey = ids.toArray();
+            int copied = Math.min(sameKey.length, result.length - filled);
+            System.arraycopy(sameKey, 0, result, filled, copied);
+            filled += copied;
+        }
+        return result;
+    }
+
+    /**
+     * Puts tasks in sorted order.
+     *
+     * @param ids The ids of tasks in the list, in any order and without duplicates.
+     * @return The same ids, sorted by description and then in list order.
+     */
+    public int[] sort(int[] ids) {
+        return sort(ids, ids.length);
+    }
+
+    /**
+     * Returns the first of some tasks in sorted order. A few tasks are picked by their precomputed keys
+     * through a heap holding only the tasks returned, while a large share of the list is picked out of
+     * the index in order, stopping once enough tasks are found.
+     *
+     * @param ids The ids of tasks in the list, in any order and without duplicates.
+     * @param count The most tasks to return.
+     * @return The first ids, sorted by description and then in list order.
+     */
+    public int[] sort(int[] ids, int count) {
+        int wanted = Math.min(count, ids.length);
+        if (wanted == 0) {
+            return new int[0];
+        }
+        long selectCost = ids.length * (long) (32 - Integer.numberOfLeadingZeros(wanted));
+        long walkCost = (long) wanted * size / ids.length;
+        if (selectCost < walkCost) {
+            return selectByKey(ids, wanted);
+        }
+        IdBitmap candidates = new IdBitmap();
+        for (int id : ids) {
+            candidates.add(id);
+        }
+        int[] result = new int[wanted];
+        int filled = 0;
+        for (IdList sameKey : idsByKey.values()) {
+            for (int id : sameKey.toArray()) {
+                if (filled == wanted) {
+                    return result;
+                }
+                if (candidates.contains(id)) {
+                    result[filled++] = id;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Picks the first tasks by keeping the best of them seen so far in a heap whose top is the last
+     * of them, so each task is compared against that one before it is kept.
+     */
+    private int[] selectByKey(int[] ids, int wanted) {
+        Comparator<Integer> order = Comparator.<Integer, String>comparing(keysById::get).thenComparing(id -> id);
+        PriorityQueue<Integer> best = new PriorityQueue<>(wanted, order.reversed());
+        for (int id : ids) {
+            if (best.size() < wanted) {
+                best.add(id);
+            } else if (order.compare(id, best.peek()) < 0) {
+                best.poll();
+                best.add(id);
+            }
+        }
+        Integer[] sorted = best.toArray(new Integer[0]);
+        Arrays.sort(sorted, order);
+        int[] result = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = sorted[i];
+        }
+        return result;
+    }
+
+    /**
+     * Folds a description so that comparing the results with {@link String#compareTo(String)} orders
+     * them as {@link String#compareToIgnoreCase(String)} does, which compares each character after
+     * converting it to upper case and then to lower case.
+     *
+     * @param description The description of a task.
+     * @return The collation key of the description.
+     */
+    static String collationKey(String description) {
+        StringBuilder key = new StringBuilder(description.length());
+        description.codePoints()
+                .map(codePoint -> Character.toLowerCase(Character.toUpperCase(codePoint)))
+                .forEach(key::appendCodePoint);
+        return key.toString();
+    }
+}
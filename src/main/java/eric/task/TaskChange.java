@@ -0,0 +1,46 @@
+package eric.task;
+
+/**
+ * Represents a single change made to a task list that has not been saved yet.
+ */
+public class TaskChange {
+    /**
+     * The kinds of change a command can make to the task list.
+     */
+    public enum Type {
+        ADD,
+        MARK,
+        UNMARK,
+        DELETE
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+
+    /**
+     * Initialises a change to the task at the given position.
+     *
+     * @param type The kind of change.
+     * @param index The zero-based position of the task, before the change for deletes.
+     * @param task The task that was changed.
+     */
+    public TaskChange(Type type, int index, Task task) {
+        assert task != null : "A change must refer to a task.";
+        this.type = type;
+        this.index = index;
+        this.task = task;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,217 @@
+package eric.task;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import eric.EricException;
+
+/**
+ * Converts tasks to and from the lines of the text data file without regular expressions.
+ *
+ * <p>Encoding appends straight into a reusable buffer, and decoding finds the fields with a single
+ * scan for the delimiter and parses dates by hand, so the only objects made per line are the task,
+ * its description and its dates. The lines are identical to those of {@link Task#toFileFormat()}.</p>
+ */
+public class TaskCodec {
+    private static final String DELIMITER = " | ";
+    private static final String CORRUPTED_MESSAGE = "File might be corrupted!";
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final int MAX_FOUR_DIGIT_YEAR = 9999;
+
+    private final StringBuilder buffer = new StringBuilder(128);
+
+    /**
+     * Encodes a task into the buffer owned by this codec, replacing its previous contents.
+     * The buffer is reused by the next call, so it should be written out before then.
+     *
+     * @param task The task to encode.
+     * @return The buffer holding the encoded line, without a line separator.
+     */
+    public StringBuilder encode(Task task) {
+        buffer.setLength(0);
+        encodeTo(task, buffer);
+        return buffer;
+    }
+
+    /**
+     * Appends the encoded line of a task to the given buffer.
+     *
+     * @param task The task to encode.
+     * @param out The buffer to append to.
+     */
+    public static void encodeTo(Task task, StringBuilder out) {
+        assert task != null : "Cannot encode a null task.";
+        assert task.getDescription() != null : "Task description cannot be null";
+        if (task instanceof Todo) {
+            out.append('T');
+        } else if (task instanceof Deadline) {
+            out.append('D');
+        } else if (task instanceof Event) {
+            out.append('E');
+        } else {
+            out.append(task.toFileFormat());
+            return;
+        }
+        out.append(DELIMITER).append(task.isDone() ? '1' : '0').append(DELIMITER).append(task.getDescription());
+        if (task instanceof Deadline) {
+            appendDate(out.append(DELIMITER), ((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            appendDate(out.append(DELIMITER), event.getFrom());
+            appendDate(out.append(DELIMITER), event.getTo());
+        }
+    }
+
+    /**
+     * Appends a date in the ISO yyyy-MM-dd form used by {@link LocalDate#toString()}.
+     *
+     * @param out The buffer to append to.
+     * @param date The date to append.
+     */
+    private static void appendDate(StringBuilder out, LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > MAX_FOUR_DIGIT_YEAR) {
+            out.append(date);
+            return;
+        }
+        appendDigits(out, year, 4);
+        appendDigits(out.append('-'), date.getMonthValue(), 2);
+        appendDigits(out.append('-'), date.getDayOfMonth(), 2);
+    }
+
+    private static void appendDigits(StringBuilder out, int value, int width) {
+        for (int divisor = (int) Math.pow(10, width - 1); divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    /**
+     * Decodes a line of the data file into the task it stores.
+     *
+     * @param line The line without its line separator.
+     * @return A Todo, Deadline or Event object.
+     * @throws EricException If the line format is invalid or corrupted.
+     */
+    public static Task decode(String line) throws EricException {
+        if (line == null || isBlank(line)) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        int typeEnd = line.indexOf(DELIMITER);
+        int statusEnd = typeEnd < 0 ? -1 : line.indexOf(DELIMITER, typeEnd + DELIMITER.length());
+        if (statusEnd < 0) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        int descriptionStart = statusEnd + DELIMITER.length();
+        int descriptionEnd = line.indexOf(DELIMITER, descriptionStart);
+        String description = line.substring(descriptionStart, descriptionEnd < 0 ? line.length() : descriptionEnd);
+
+        Task task;
+        char type = typeEnd == 1 ? line.charAt(0) : '\0';
+        switch (type) {
+        case 'T':
+            task = new Todo(description);
+            break;
+        case 'D':
+            task = decodeDeadline(line, description, descriptionEnd);
+            break;
+        case 'E':
+            task = decodeEvent(line, description, descriptionEnd);
+            break;
+        default:
+            throw new EricException("Unknown task type found in data file: " + line.substring(0, typeEnd));
+        }
+
+        int statusStart = typeEnd + DELIMITER.length();
+        if (statusEnd - statusStart == 1 && line.charAt(statusStart) == '1') {
+            task.markDone();
+        }
+        return task;
+    }
+
+    private static Task decodeDeadline(String line, String description, int descriptionEnd) throws EricException {
+        if (descriptionEnd < 0) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        int byStart = descriptionEnd + DELIMITER.length();
+        LocalDate by = parseDate(line, byStart, fieldEnd(line, byStart));
+        if (by == null) {
+            throw new EricException("Deadline date is in the wrong format!");
+        }
+        return new Deadline(description, by);
+    }
+
+    private static Task decodeEvent(String line, String description, int descriptionEnd) throws EricException {
+        int fromEnd = descriptionEnd < 0 ? -1 : line.indexOf(DELIMITER, descriptionEnd + DELIMITER.length());
+        if (fromEnd < 0) {
+            throw new EricException(CORRUPTED_MESSAGE);
+        }
+        int toStart = fromEnd + DELIMITER.length();
+        LocalDate from = parseDate(line, descriptionEnd + DELIMITER.length(), fromEnd);
+        LocalDate to = from == null ? null : parseDate(line, toStart, fieldEnd(line, toStart));
+        if (to == null) {
+            throw new EricException("Event date is in the wrong format!");
+        }
+        return new Event(description, from, to);
+    }
+
+    private static int fieldEnd(String line, int start) {
+        int end = line.indexOf(DELIMITER, start);
+        return end < 0 ? line.length() : end;
+    }
+
+    /**
+     * Parses the ISO date between two positions of the line, ignoring surrounding whitespace.
+     * Plain yyyy-MM-dd dates are read digit by digit; anything else goes through {@link LocalDate#parse}.
+     *
+     * @param line The line holding the date.
+     * @param start The position where the date field starts.
+     * @param end The position where the date field ends.
+     * @return The date, or null if the field is not a valid date.
+     */
+    private static LocalDate parseDate(String line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        try {
+            if (end - start == ISO_DATE_LENGTH && line.charAt(start + 4) == '-' && line.charAt(start + 7) == '-') {
+                int year = parseDigits(line, start, start + 4);
+                int month = parseDigits(line, start + 5, start + 7);
+                int day = parseDigits(line, start + 8, start + 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(line.substring(start, end));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a run of ASCII digits as a number.
+     *
+     * @return The number, or -1 if any character is not a digit.
+     */
+    private static int parseDigits(String line, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isBlank(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
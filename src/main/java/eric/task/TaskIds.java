@@ -0,0 +1,65 @@
+package eric.task;
+import java.util.Arrays;
+
+/**
+ * Gives every task in the list a stable id, so that indexes can refer to tasks without being
+ * updated when a deletion shifts the positions after it.
+ *
+ * <p>Tasks are only ever appended, so ids increase along the list and the position of an id
+ * is found by binary search.</p>
+ */
+public class TaskIds {
+    private int[] ids = new int[16];
+    private int size;
+    private int nextId;
+
+    /**
+     * Gives a new id to a task appended to the end of the list.
+     *
+     * @return The id of the appended task.
+     */
+    public int append() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[size++] = nextId;
+        return nextId++;
+    }
+
+    /**
+     * Forgets the id of a task removed from the list.
+     *
+     * @param position The zero-based position of the removed task.
+     * @return The id of the removed task.
+     */
+    public int removeAt(int position) {
+        int id = ids[position];
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return id;
+    }
+
+    /**
+     * Returns the id of the task at a position.
+     *
+     * @param position The zero-based position of the task.
+     * @return The id of the task.
+     */
+    public int idAt(int position) {
+        return ids[position];
+    }
+
+    /**
+     * Returns the current position of a task.
+     *
+     * @param id The id of the task.
+     * @return The zero-based position of the task, or a negative number if it is no longer in the list.
+     */
+    public int positionOf(int id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
@@ -2,6 +2,8 @@ package eric.task;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -9,14 +11,28 @@ import eric.EricException;
 
 /** Manages relevant task operations */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    /** The most changes kept for saving, so that a list that is never saved does not keep every change. */
+    private static final int MAX_UNSAVED_CHANGES = 1024;
+    private final List<Task> tasks;
+    private final List<TaskChange> unsavedChanges = new ArrayList<>();
+    private boolean hasDroppedChanges;
+    private final SearchCache searchCache = new SearchCache();
+    private long version;
+    private TaskIds ids;
+    private KeywordIndex keywordIndex;
+    private DateIndex dateIndex;
+    private FilterIndex filterIndex;
+    private SortedIndex sortedIndex;
+    private RelevanceIndex relevanceIndex;
+    private TaskWords taskWords;
 
     /**
      * Initilises the TaskList object with a list of tasks.
+     * The list may rebuild its tasks lazily, so tasks are only accessed when a command needs them.
      *
      * @param tasks The task list given.
      */
-    public TaskList(ArrayList<Task> tasks) {
+    public TaskList(List<Task> tasks) {
         this.tasks = tasks;
     }
 
@@ -79,11 +95,19 @@ public class TaskList {
         int oldTaskSize = tasks.size();
         tasks.add(task);
         assert tasks.size() == oldTaskSize + 1 : "The size of the task list should have increased after adding a task.";
+        recordChange(TaskChange.Type.ADD, oldTaskSize, task);
+        if (ids != null) {
+            addToIndexes(task);
+        }
+        if (taskWords != null) {
+            taskWords.add(task.getDescription());
+        }
         return task;
     }
 
     /**
      * Marks and unmarks a task and prints a confirmation message.
+     * A task that already has the requested status is left unchanged and is not recorded as a change.
      *
      * @param input The command containing the task number.
      * @throws EricException If the index is invalid or missing.
@@ -92,7 +116,13 @@ public class TaskList {
         int index = extractTaskIndex(input);
         boolean isMarked = input.startsWith("mark");
         Task task = tasks.get(index);
-        updateTaskStatus(task, isMarked);
+        if (task.isDone() != isMarked) {
+            updateTaskStatus(task, isMarked);
+            recordChange(isMarked ? TaskChange.Type.MARK : TaskChange.Type.UNMARK, index, task);
+            if (ids != null) {
+                filterIndex.setDone(ids.idAt(index), isMarked);
+            }
+        }
         return task;
 
     }
@@ -105,9 +135,88 @@ public class TaskList {
      */
     public Task deleteTask(String input) throws EricException {
         int index = extractTaskIndex(input);
-        return tasks.remove(index);
+        Task removed = tasks.remove(index);
+        recordChange(TaskChange.Type.DELETE, index, removed);
+        if (ids != null) {
+            int id = ids.removeAt(index);
+            keywordIndex.remove(id, removed.getDescription());
+            dateIndex.remove(id, removed);
+            filterIndex.remove(id, removed);
+            sortedIndex.remove(id);
+            relevanceIndex.remove(id, removed.getDescription());
+        }
+        if (taskWords != null) {
+            taskWords.remove(removed.getDescription());
+        }
+        return removed;
+
+    }
+
+    /**
+     * Records a change to the list so that it can be saved and bumps the modification version.
+     * Once too many changes are unsaved they are all dropped, and the whole list must be saved instead.
+     *
+     * @param type The kind of change.
+     * @param index The zero-based position of the task.
+     * @param task The task that was changed.
+     */
+    private void recordChange(TaskChange.Type type, int index, Task task) {
+        if (unsavedChanges.size() == MAX_UNSAVED_CHANGES) {
+            unsavedChanges.clear();
+            hasDroppedChanges = true;
+        }
+        if (!hasDroppedChanges) {
+            unsavedChanges.add(new TaskChange(type, index, task));
+        }
+        version++;
+    }
+
+    /**
+     * Returns the number of changes made to the list since it was created.
+     * The version only moves when a command actually changes a task.
+     *
+     * @return The modification version of the list.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the cache of search results, whose hit and miss counts show how often searches are repeated.
+     *
+     * @return The search cache of the list.
+     */
+    public SearchCache getSearchCache() {
+        return searchCache;
+    }
+
+    /**
+     * Returns the changes made since the list was last saved, oldest first.
+     *
+     * @return The unsaved changes.
+     */
+    public List<TaskChange> getUnsavedChanges() {
+        return Collections.unmodifiableList(unsavedChanges);
+    }
+
+    /**
+     * Checks whether changes were dropped since the list was last saved, in which case the unsaved
+     * changes are incomplete and the whole list must be saved.
+     *
+     * @return True if changes were dropped.
+     */
+    public boolean hasDroppedChanges() {
+        return hasDroppedChanges;
+    }
 
+    /**
+     * Forgets the recorded changes once they have been saved.
+     */
+    public void clearUnsavedChanges() {
+        unsavedChanges.clear();
+        hasDroppedChanges = false;
     }
+
     /**
      * Finds task based on keywords and filter.
      *
@@ -122,52 +231,187 @@ public class TaskList {
      */
     public ArrayList<Task> findTasksByKeyword(String[] keywords, LocalDate searchDate, boolean isStrict, boolean isTodo,
                                               boolean isDeadline, boolean isEvent, boolean isSorted) {
-        Stream<Task> filtered = filterTasksBySearchCriteria(keywords, searchDate,
-                                                           isStrict, isTodo,
-                                                           isDeadline, isEvent);
-        return collectWithSorting(filtered, isSorted);
+        return new ArrayList<>(findTasks(new Query(keywords, searchDate, null, isStrict, 0, isTodo, isDeadline,
+                isEvent, false, false, isSorted, false, 0, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * Finds one page of the tasks matching a query. The filters of the query are applied in the order
+     * chosen by its plan, only the tasks on the page are looked at, and sorted or ranked results only
+     * order as many tasks as the page needs.
+     * A search repeated before the list changes returns the same list as before, which cannot be changed.
+     *
+     * @param query The query.
+     * @return Unmodifiable list of the tasks on the page.
+     */
+    public List<Task> findTasks(Query query) {
+        String key = query.getCacheKey();
+        List<Task> cached = searchCache.get(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        int[] matches = planQuery(query).execute(id -> tasks.get(ids.positionOf(id)));
+        int offset = query.getOffset();
+        int end = (int) Math.min((long) offset + query.getLimit(), Integer.MAX_VALUE);
+        Stream<Task> results;
+        if (query.isRanked()) {
+            int[] candidates = matches == null ? filterIndex.select(false, false, false, false, false).toArray()
+                    : matches;
+            int[] ranked = relevanceIndex.rank(query.findRankedWords(keywordIndex), candidates, end,
+                    keywordIndex);
+            results = toTasks(Arrays.copyOfRange(ranked, Math.min(offset, ranked.length), ranked.length));
+        } else if (query.isSorted()) {
+            SortedIndex index = getSortedIndex();
+            int[] sorted = matches == null ? index.inOrder(end) : index.sort(matches, end);
+            results = toTasks(Arrays.copyOfRange(sorted, Math.min(offset, sorted.length), sorted.length));
+        } else if (matches == null) {
+            results = tasks.subList(Math.min(offset, tasks.size()), Math.min(end, tasks.size())).stream();
+        } else {
+            results = toTasks(Arrays.copyOfRange(matches, Math.min(offset, matches.length),
+                    Math.min(end, matches.length)));
+        }
+        ArrayList<Task> page = results.collect(Collectors.toCollection(ArrayList::new));
+        List<Task> found = Collections.unmodifiableList(page);
+        searchCache.put(key, found);
+        return found;
+    }
+
+    /**
+     * Describes how a query would be run, without running it.
+     *
+     * @param query The query.
+     * @return One line for each filter in the order it would be applied, then one for ordering the results.
+     */
+    public List<String> explain(Query query) {
+        QueryPlan plan = planQuery(query);
+        List<String> lines = new ArrayList<>(plan.describe());
+        if (query.isRanked()) {
+            long end = Math.min((long) query.getOffset() + query.getLimit(), Integer.MAX_VALUE);
+            lines.add("Rank by relevance, keeping only the best " + end + " in a heap");
+        } else if (query.isSorted()) {
+            lines.add("Sort alphabetically through the sorted index, stopping once the page is full");
+        } else if (plan.isEmpty()) {
+            lines.add("List every task in list order");
+        } else {
+            lines.add(query.getSearchRange() == null ? "Keep list order" : "Keep date order");
+        }
+        return lines;
+    }
+
+    private QueryPlan planQuery(Query query) {
+        buildIndexesIfNeeded();
+        return new QueryPlan(query, keywordIndex, dateIndex, filterIndex, ids.getSize());
     }
 
     /**
-     * Filters tasks based on search criteria.
+     * Finds the deadlines due from a date onwards, soonest first.
      *
-     * @param keywords Keywords to search for.
-     * @param searchDate Optional date filter.
-     * @param isStrict Strictness of keyword matching.
-     * @param isTodo Filter for todo tasks.
-     * @param isDeadline Filter for deadline tasks.
-     * @param isEvent Filter for event tasks.
-     * @return Filtered stream of tasks.
+     * @param today The earliest due date to include.
+     * @param count The most deadlines to return.
+     * @return The upcoming deadlines in order of their due date, then in list order.
      */
-    private Stream<Task> filterTasksBySearchCriteria(String[] keywords, LocalDate searchDate,
-                                                     boolean isStrict, boolean isTodo,
-                                                     boolean isDeadline, boolean isEvent) {
-        return tasks.stream()
-            .filter(task -> matchTaskType(task, isTodo, isDeadline, isEvent))
-            .filter(task -> matchKeyword(task, keywords, isStrict))
-            .filter(task -> searchDate == null || withinDateRange(task, searchDate));
+    public ArrayList<Task> findUpcomingDeadlines(LocalDate today, int count) {
+        int[] upcoming = getDateIndex().findDeadlinesFrom(today, count);
+        return toTasks(upcoming).collect(Collectors.toCollection(ArrayList::new));
     }
 
     /**
-     * Collects stream results with optional sorting.
+     * Returns the tasks with the given ids in the same order, which is list order when the ids are ascending.
      *
-     * @param stream The filtered task stream.
-     * @param isSorted Whether to sort alphabetically.
-     * @return ArrayList of tasks, sorted if requested.
+     * @param matches The ids of tasks in the list.
+     * @return Stream of the tasks.
      */
-    private ArrayList<Task> collectWithSorting(Stream<Task> stream, boolean isSorted) {
-        if (isSorted) {
-            stream = sortAlphabetically(stream);
+    private Stream<Task> toTasks(int[] matches) {
+        return Arrays.stream(matches).mapToObj(id -> tasks.get(ids.positionOf(id)));
+    }
+
+    private KeywordIndex getKeywordIndex() {
+        buildIndexesIfNeeded();
+        return keywordIndex;
+    }
+
+    private DateIndex getDateIndex() {
+        buildIndexesIfNeeded();
+        return dateIndex;
+    }
+
+    /**
+     * Returns the trie of the words in the task descriptions, for suggesting words as the user types.
+     * The trie is filled from the descriptions on the first call, without building the search indexes,
+     * and kept up to date after.
+     *
+     * @return The trie of words, safe to search from another thread.
+     */
+    public PrefixTrie getWordPrefixes() {
+        if (taskWords == null) {
+            TaskWords words = new TaskWords();
+            for (Task task : tasks) {
+                words.add(task.getDescription());
+            }
+            taskWords = words;
         }
-        return stream.collect(Collectors.toCollection(ArrayList::new));
+        return taskWords.getPrefixes();
     }
 
+    private SortedIndex getSortedIndex() {
+        buildIndexesIfNeeded();
+        return sortedIndex;
+    }
+
+    /**
+     * Builds the search indexes on first use. A list loaded lazily only rebuilds its tasks once the
+     * first search needs them, after which the indexes are kept up to date as tasks are added and deleted.
+     * The indexes are only kept once every task is in them, so a task that cannot be rebuilt fails every
+     * search rather than leaving the indexes with the tasks before it.
+     */
+    private void buildIndexesIfNeeded() {
+        if (ids != null) {
+            return;
+        }
+        TaskIds newIds = new TaskIds();
+        KeywordIndex newKeywordIndex = new KeywordIndex();
+        DateIndex newDateIndex = new DateIndex();
+        FilterIndex newFilterIndex = new FilterIndex();
+        SortedIndex newSortedIndex = new SortedIndex();
+        RelevanceIndex newRelevanceIndex = new RelevanceIndex();
+        for (Task task : tasks) {
+            int id = newIds.append();
+            newKeywordIndex.add(id, task.getDescription());
+            newDateIndex.add(id, task);
+            newFilterIndex.add(id, task);
+            newSortedIndex.add(id, task.getDescription());
+            newRelevanceIndex.add(id, task.getDescription());
+        }
+        keywordIndex = newKeywordIndex;
+        dateIndex = newDateIndex;
+        filterIndex = newFilterIndex;
+        sortedIndex = newSortedIndex;
+        relevanceIndex = newRelevanceIndex;
+        ids = newIds;
+    }
+
+    private void addToIndexes(Task task) {
+        int id = ids.append();
+        keywordIndex.add(id, task.getDescription());
+        dateIndex.add(id, task);
+        filterIndex.add(id, task);
+        sortedIndex.add(id, task.getDescription());
+        relevanceIndex.add(id, task.getDescription());
+    }
+
+    /**
+     * Starts measuring, on a thread of its own, from how many words a keyword scan is worth running in
+     * parallel. Scans stay sequential until it is known, so this is best called once at startup.
+     */
+    public static void measureParallelScans() {
+        ParallelScan.measureThresholdInBackground();
+    }
 
     public int getSize() {
         return tasks.size();
     }
 
-    public ArrayList<Task> getEveryTask() {
+    public List<Task> getEveryTask() {
         return tasks;
     }
 
@@ -322,139 +566,4 @@ public class TaskList {
         }
     }
 
-    /**
-     * Checks whether the date given is within the date range of the task.
-     *
-     * @param task The task interested to check against.
-     * @param date The date range specfied.
-     * @return Boolean value indicated whether the date given is within the date range of the task.
-     */
-    private boolean withinDateRange(Task task, LocalDate date) {
-        if (task instanceof Deadline) {
-            return ((Deadline) task).by.equals(date);
-        }
-        if (task instanceof Event) {
-            Event event = (Event) task;
-            boolean notBeforeStart = !date.isBefore(event.from);
-            boolean notAfterEnd = !date.isAfter(event.to);
-            return notBeforeStart && notAfterEnd;
-        }
-        return false;
-    }
-
-    /**
-     * Returns a boolean flag if the task description matches with the keywords.
-     *
-     * @param task The interested task to search against.
-     * @param keywords The list of keywords to search for.
-     * @param isStrict Specifying an "And" search or an "Or" search.
-     * @return A boolean flag indicating if the task description is matched against any keyword.
-     */
-    private boolean matchKeyword(Task task, String[] keywords, boolean isStrict) {
-        if (hasNoValidKeywords(keywords)) {
-            return true;
-        }
-
-        String[] validKeywords = extractValidKeywords(keywords);
-        if (validKeywords.length == 0) {
-            return true;
-        }
-
-        return performKeywordMatching(task, validKeywords, isStrict);
-    }
-
-    /**
-     * Checks if the provided keywords array contains no valid keywords.
-     *
-     * @param keywords The keywords array to check.
-     * @return True if no valid keywords are present.
-     */
-    private boolean hasNoValidKeywords(String[] keywords) {
-        return keywords == null || keywords.length == 0
-                || (keywords.length == 1 && keywords[0].isEmpty());
-    }
-
-    /**
-     * Extracts non-empty keywords from the keywords array.
-     *
-     * @param keywords The original keywords array.
-     * @return Array containing only non-empty keywords.
-     */
-    private String[] extractValidKeywords(String[] keywords) {
-        return Arrays.stream(keywords)
-                .filter(keyword -> !keyword.isEmpty())
-                .toArray(String[]::new);
-    }
-
-    /**
-     * Performs the actual keyword matching against task description.
-     *
-     * @param task The task to match against.
-     * @param validKeywords Non-empty keywords to match.
-     * @param isStrict Whether to use strict (AND) or loose (OR) matching.
-     * @return True if task matches the keyword criteria.
-     */
-    private boolean performKeywordMatching(Task task, String[] validKeywords, boolean isStrict) {
-        String taskDescription = task.getDescription().toLowerCase();
-
-        if (isStrict) {
-            return Arrays.stream(validKeywords)
-                    .allMatch(keyword -> taskDescription.contains(keyword.toLowerCase()));
-        } else {
-            return Arrays.stream(validKeywords)
-                    .anyMatch(keyword -> taskDescription.contains(keyword.toLowerCase()));
-        }
-    }
-
-    /**
-     * Returns a boolean flag if the task matches the desired task type.
-     *
-     * @param task The interested task to search against.
-     * @param isTodo A boolean flag to limit search to todo task.
-     * @param isDeadLine A boolean flag to limit search to deadline task.
-     * @param isEvent A boolean flag to limit search to event task.
-     * @return A boolean flag to indicate which task type it is tagged to.
-     */
-    private boolean matchTaskType(Task task, boolean isTodo, boolean isDeadLine, boolean isEvent) {
-        // If no specific type filters are set, match all tasks
-        if (!isTodo && !isDeadLine && !isEvent) {
-            return true;
-        }
-
-        // Check each type filter
-        return matchesTodo(task, isTodo)
-                || matchesDeadline(task, isDeadLine)
-                || matchesEvent(task, isEvent);
-    }
-
-    /**
-     * Checks if task matches todo filter.
-     */
-    private boolean matchesTodo(Task task, boolean isTodo) {
-        return isTodo && task instanceof Todo;
-    }
-
-    /**
-     * Checks if task matches deadline filter.
-     */
-    private boolean matchesDeadline(Task task, boolean isDeadLine) {
-        return isDeadLine && task instanceof Deadline;
-    }
-
-    /**
-     * Checks if task matches event filter.
-     */
-    private boolean matchesEvent(Task task, boolean isEvent) {
-        return isEvent && task instanceof Event;
-    }
-
-    /**
-     * Sorts the task stream alphabetically while ignoring case.
-     *
-     * @param taskStream The stream of tasks to sort.
-     * @return The sorted stream of tasks.
-     */
-    private Stream<Task> sortAlphabetically(Stream<Task> taskStream) {
-        return taskStream.sorted((t1, t2) -> t1.getDescription().compareToIgnoreCase(t2.getDescription()));
-    }
 }
@@ -0,0 +1,57 @@
+package eric.task;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the words of the task descriptions in a prefix trie for suggestions, apart from the search
+ * indexes so that suggesting words never builds them.
+ *
+ * <p>Words are split as the keyword index splits them. The number of tasks holding each word is
+ * counted, so that a word only leaves the trie with the last task holding it.</p>
+ */
+public class TaskWords {
+    private final Map<String, Integer> taskCounts = new HashMap<>();
+    private final PrefixTrie prefixes = new PrefixTrie();
+
+    /**
+     * Adds the words of a task added to the list.
+     *
+     * @param description The description of the task.
+     */
+    public void add(String description) {
+        for (String word : KeywordIndex.splitIntoWords(description)) {
+            if (taskCounts.merge(word, 1, Integer::sum) == 1) {
+                prefixes.add(word);
+            }
+        }
+    }
+
+    /**
+     * Removes the words of a task deleted from the list.
+     *
+     * @param description The description of the task.
+     */
+    public void remove(String description) {
+        for (String word : KeywordIndex.splitIntoWords(description)) {
+            Integer count = taskCounts.get(word);
+            if (count == null) {
+                continue;
+            }
+            if (count == 1) {
+                taskCounts.remove(word);
+                prefixes.remove(word);
+            } else {
+                taskCounts.put(word, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the trie of the words, kept up to date as tasks are added and removed.
+     *
+     * @return The trie of words, safe to search from another thread.
+     */
+    public PrefixTrie getPrefixes() {
+        return prefixes;
+    }
+}
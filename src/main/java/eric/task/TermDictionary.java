@@ -0,0 +1,145 @@
+package eric.task;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the words of the task descriptions in sorted order, so that the words within a few edits of
+ * another word are found without comparing it to every word.
+ *
+ * <p>The sorted words are walked as if they were a trie. The edit distances between the word searched
+ * for and each prefix are computed a character at a time, and the rows already computed for a prefix
+ * are reused by every word sharing it. Once no edits of a prefix come close enough to the word searched
+ * for, every word starting with that prefix is skipped with a single lookup, so only the prefixes within
+ * reach of the word are visited.</p>
+ */
+class TermDictionary {
+    private final NavigableSet<String> words = new TreeSet<>();
+
+    /**
+     * Adds a word, unless the dictionary already holds it.
+     *
+     * @param word The word to add.
+     */
+    void add(String word) {
+        words.add(word);
+    }
+
+    /**
+     * Removes a word, if the dictionary holds it.
+     *
+     * @param word The word to remove.
+     */
+    void remove(String word) {
+        words.remove(word);
+    }
+
+    /**
+     * Finds the words within a number of edits of a word.
+     *
+     * @param word The word to search for.
+     * @param maxEdits The most characters inserted, deleted or replaced to turn one word into the other.
+     * @return The words found, in sorted order.
+     */
+    List<String> find(String word, int maxEdits) {
+        List<String> found = new ArrayList<>();
+        // rows[i][j] is the distance between the first i characters of a prefix and of the word
+        int[][] rows = new int[word.length() + maxEdits + 2][word.length() + 1];
+        for (int j = 0; j <= word.length(); j++) {
+            rows[0][j] = j;
+        }
+        String previous = "";
+        String candidate = words.isEmpty() ? null : words.first();
+        while (candidate != null) {
+            int depth = commonPrefixLength(previous, candidate);
+            int outOfReach = -1;
+            for (int i = depth + 1; i <= candidate.length(); i++) {
+                if (i >= rows.length) {
+                    // Longer than the word by more than the edits allowed
+                    outOfReach = i;
+                    break;
+                }
+                if (fillRow(rows[i - 1], rows[i], i, candidate.charAt(i - 1), word) > maxEdits) {
+                    outOfReach = i;
+                    break;
+                }
+            }
+            if (outOfReach < 0) {
+                if (rows[candidate.length()][word.length()] <= maxEdits) {
+                    found.add(candidate);
+                }
+                previous = candidate;
+                candidate = words.higher(candidate);
+            } else {
+                String prefix = candidate.substring(0, outOfReach);
+                previous = prefix.substring(0, outOfReach - 1);
+                candidate = skipPrefix(prefix);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Computes the distances for one more character of a prefix.
+     *
+     * @return The smallest distance in the row, below which no longer prefix can go.
+     */
+    private static int fillRow(int[] above, int[] row, int i, char c, String word) {
+        row[0] = i;
+        int smallest = row[0];
+        for (int j = 1; j <= word.length(); j++) {
+            int replace = above[j - 1] + (word.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(replace, Math.min(above[j], row[j - 1]) + 1);
+            smallest = Math.min(smallest, row[j]);
+        }
+        return smallest;
+    }
+
+    /**
+     * Returns the first word after every word starting with a prefix.
+     */
+    private String skipPrefix(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        String next = prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+        return words.ceiling(next);
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int i = 0; i < length; i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Counts the fewest characters inserted, deleted or replaced to turn one word into another.
+     *
+     * @param first The first word.
+     * @param second The second word.
+     * @return The edit distance between the words.
+     */
+    static int distance(String first, String second) {
+        int[] above = new int[second.length() + 1];
+        int[] row = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            above[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            fillRow(above, row, i, first.charAt(i - 1), second);
+            int[] swap = above;
+            above = row;
+            row = swap;
+        }
+        return above[second.length()];
+    }
+}
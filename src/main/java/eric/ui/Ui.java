@@ -1,5 +1,5 @@
 package eric.ui;
-import java.util.ArrayList;
+import java.util.List;
 
 import eric.task.Task;
 
@@ -14,6 +14,25 @@ public class Ui {
         return "Configuring a new empty task list!";
     }
 
+    /**
+     * Displays the message for a data file that was unreadable and replaced by its backup.
+     *
+     * @return The backup restored message.
+     */
+    public String backupRestoredIndi() {
+        return "The data file could not be read, so your tasks were restored from the last backup!";
+    }
+
+    /**
+     * Displays the message for damaged tasks that were left out of the loaded list.
+     *
+     * @param count The number of damaged tasks.
+     * @return The quarantined tasks message.
+     */
+    public String quarantinedIndi(int count) {
+        return count + " damaged task(s) could not be loaded and were moved to the quarantine file!";
+    }
+
     /**
      * Displays the greeting message.
      *
@@ -91,7 +110,7 @@ public class Ui {
      * @param tasks The list of tasks to display.
      * @return The task list.
      */
-    public String displayTaskList(ArrayList<Task> tasks) {
+    public String displayTaskList(List<Task> tasks) {
         if (tasks.isEmpty()) {
             return "The task list is currently empty!";
         }
@@ -100,17 +119,50 @@ public class Ui {
     }
 
     /**
-     * Displays the search results.
+     * Displays one page of search results, numbered from their position among all the results.
      *
-     * @param results The list of tasks that match the search.
+     * @param results The tasks on the page.
+     * @param keyword The search criteria.
+     * @param firstNumber The number of the first task on the page.
      * @return The task list that matches the search result.
      */
-    public String displaySearch(ArrayList<Task> results, String keyword) {
+    public String displaySearch(List<Task> results, String keyword, int firstNumber) {
         if (results.isEmpty()) {
             return "No tasks on " + keyword;
         }
         String heading = "This is the list of tasks for " + keyword + ":";
-        return heading + formatTaskList(results);
+        return heading + formatTaskList(results, firstNumber);
+    }
+
+    /**
+     * Displays the plan chosen for a search.
+     *
+     * @param plan The steps of the plan in the order they would be run.
+     * @param keyword The search criteria.
+     * @return The plan message.
+     */
+    public String displayPlan(List<String> plan, String keyword) {
+        StringBuilder steps = new StringBuilder("This is how I would search for " + keyword + ":");
+        for (int i = 0; i < plan.size(); i++) {
+            steps.append(i + 1).append(". ").append(plan.get(i));
+            if (i < plan.size() - 1) {
+                steps.append("\n");
+            }
+        }
+        return steps.toString();
+    }
+
+    /**
+     * Displays the upcoming deadlines.
+     *
+     * @param upcoming The deadlines due from today onwards, soonest first.
+     * @return The upcoming deadlines message.
+     */
+    public String displayUpcoming(List<Task> upcoming) {
+        if (upcoming.isEmpty()) {
+            return "You have no upcoming deadlines!";
+        }
+        return "These are your upcoming deadlines:\n" + formatTaskList(upcoming);
     }
 
     /**
@@ -119,10 +171,21 @@ public class Ui {
      * @param tasks The task to format.
      * @return The string of tasks in the task list.
      */
-    private String formatTaskList(ArrayList<Task> tasks) {
+    private String formatTaskList(List<Task> tasks) {
+        return formatTaskList(tasks, 1);
+    }
+
+    /**
+     * Formats the array of task in a string, numbering them from the given number.
+     *
+     * @param tasks The task to format.
+     * @param firstNumber The number of the first task.
+     * @return The string of tasks in the task list.
+     */
+    private String formatTaskList(List<Task> tasks, int firstNumber) {
         StringBuilder taskList = new StringBuilder();
         for (int i = 0; i < tasks.size(); i++) {
-            taskList.append(i + 1).append(". ").append(tasks.get(i));
+            taskList.append(firstNumber + i).append(". ").append(tasks.get(i));
             if (i < tasks.size() - 1) {
                 taskList.append("\n");
             }
@@ -13,9 +13,13 @@ import eric.command.AddTodoCommand;
 import eric.command.Command;
 import eric.command.DeleteCommand;
 import eric.command.ExitCommand;
+import eric.command.ExplainCommand;
 import eric.command.FindCommand;
 import eric.command.ListCommand;
 import eric.command.MarkCommand;
+import eric.command.UpcomingCommand;
+import eric.task.TaskList;
+import eric.ui.Ui;
 
 /**
  * Tests for Parser.parse() method covering various command types and edge cases.
@@ -183,5 +187,183 @@ public class ParserTest {
         assertEquals("Please provide a keyword/date to search for against the task list.",
                 exception.getMessage());
     }
-}
 
+    @Test
+    public void parse_findWithDateRange_success() throws EricException {
+        Parser parser = new Parser();
+        Command cmd = parser.parse("find report /between 2026-02-16 2026-02-22 /deadline");
+        assertInstanceOf(FindCommand.class, cmd);
+    }
+
+    @Test
+    public void parse_findWithReversedDateRange_exceptionThrown() {
+        Parser parser = new Parser();
+        EricException exception = assertThrows(EricException.class, () -> {
+            parser.parse("find /between 2026-02-22 2026-02-16");
+        });
+        assertEquals("The start date of /between must not be after its end date!", exception.getMessage());
+    }
+
+    @Test
+    public void parse_findWithIncompleteDateRange_exceptionThrown() {
+        Parser parser = new Parser();
+        EricException exception = assertThrows(EricException.class, () -> {
+            parser.parse("find /between 2026-02-16 /sort");
+        });
+        assertEquals("Please provide a start and end date after the /between flag!", exception.getMessage());
+    }
+
+    @Test
+    public void parse_findWithStatusFlags_success() throws EricException {
+        Parser parser = new Parser();
+        Command cmd = parser.parse("find report /deadline /undone");
+        assertInstanceOf(FindCommand.class, cmd);
+    }
+
+    @Test
+    public void parse_findWithLimitAndPage_showsThatPage() throws EricException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 5; i++) {
+            tasks.addTodo("todo read chapter " + i);
+        }
+        Command cmd = new Parser().parse("find chapter /limit 2 /page 2");
+
+        assertInstanceOf(FindCommand.class, cmd);
+        assertEquals("This is the list of tasks for keyword: chapter (Loose match)  (Unsorted) "
+                + " (Page 2, up to 2 per page)\n:3. [T][ ] read chapter 3\n4. [T][ ] read chapter 4",
+                cmd.execute(tasks, new Ui(), null));
+    }
+
+    @Test
+    public void parse_findWithInvalidLimit_exceptionThrown() {
+        Parser parser = new Parser();
+        EricException exception = assertThrows(EricException.class, () -> {
+            parser.parse("find book /limit 0");
+        });
+        assertEquals("The number after the /limit flag must be positive!", exception.getMessage());
+        exception = assertThrows(EricException.class, () -> {
+            parser.parse("find book /page /sort");
+        });
+        assertEquals("Please provide a number after the /page flag!", exception.getMessage());
+    }
+
+    @Test
+    public void parse_explainCommand_showsPlan() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo read book");
+        Command cmd = new Parser().parse("explain book /todo /sort");
+
+        assertInstanceOf(ExplainCommand.class, cmd);
+        assertEquals("This is how I would search for keyword: book (Loose match)  (Sorted)  in [Todos]\n"
+                + ":1. Type and status filter, found through the index (estimate: 1)\n"
+                + "2. Any of the keywords book, found through the index (estimate: 1)\n"
+                + "3. Sort alphabetically through the sorted index, stopping once the page is full",
+                cmd.execute(tasks, new Ui(), null));
+    }
+
+    @Test
+    public void parse_findWithExpression_showsMatchingTasks() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addDeadline("deadline send report /by 2025-10-01");
+        tasks.addDeadline("deadline draft memo /by 2025-10-01");
+        tasks.addDeadline("deadline reply to memo /by 2025-10-01");
+        tasks.addDeadline("deadline send report /by 2025-10-02");
+        tasks.addTodo("todo report and memo");
+        Command cmd = new Parser().parse("find (report OR Memo) AND NOT draft /deadline /date 2025-10-01");
+
+        assertInstanceOf(FindCommand.class, cmd);
+        assertEquals("This is the list of tasks for keyword: NOT draft AND (memo OR report) (Expression)  (Unsorted) "
+                + " in [Deadline]\n:1. [D][ ] send report (by: Oct 1 2025)\n"
+                + "2. [D][ ] reply to memo (by: Oct 1 2025)", cmd.execute(tasks, new Ui(), null));
+    }
+
+    @Test
+    public void parse_findWithInvalidExpression_exceptionThrown() {
+        Parser parser = new Parser();
+        EricException exception = assertThrows(EricException.class, () -> {
+            parser.parse("find (report OR memo");
+        });
+        assertEquals("Please check the brackets in your search!", exception.getMessage());
+        exception = assertThrows(EricException.class, () -> {
+            parser.parse("find report AND NOT");
+        });
+        assertEquals("Please provide a keyword after NOT!", exception.getMessage());
+        exception = assertThrows(EricException.class, () -> {
+            parser.parse("find OR memo");
+        });
+        assertEquals("Please provide a keyword before OR!", exception.getMessage());
+    }
+
+    @Test
+    public void parse_findWithRank_showsBestMatchesFirst() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo read book and notes");
+        tasks.addTodo("todo book club book");
+        tasks.addTodo("todo return book");
+        tasks.addTodo("todo read notes");
+        Command cmd = new Parser().parse("find book /rank");
+
+        assertInstanceOf(FindCommand.class, cmd);
+        assertEquals("This is the list of tasks for keyword: book (Loose match)  (Ranked) "
+                + " (Page 1, up to 10 per page)\n:1. [T][ ] book club book\n2. [T][ ] return book\n"
+                + "3. [T][ ] read book and notes", cmd.execute(tasks, new Ui(), null));
+
+        EricException exception = assertThrows(EricException.class, () -> {
+            new Parser().parse("find book /rank /sort");
+        });
+        assertEquals("Please choose either /sort or /rank, not both!", exception.getMessage());
+    }
+
+    @Test
+    public void parse_findWithFuzzy_findsMisspelledKeywords() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo submit report");
+        tasks.addTodo("todo read book");
+        tasks.addTodo("todo reports archive");
+        tasks.addTodo("todo report on book");
+        Command cmd = new Parser().parse("find repot /fuzzy");
+
+        assertInstanceOf(FindCommand.class, cmd);
+        assertEquals("This is the list of tasks for keyword: repot (Loose match) (Up to 1 typo per keyword) "
+                + " (Unsorted) \n:1. [T][ ] submit report\n2. [T][ ] report on book",
+                cmd.execute(tasks, new Ui(), null));
+        assertEquals("This is the list of tasks for keyword: NOT bok~2 AND reprot~2 (Expression)  (Unsorted) "
+                + "\n:1. [T][ ] submit report",
+                new Parser().parse("find reprot AND NOT bok /fuzzy 2").execute(tasks, new Ui(), null));
+
+    }
+
+    @Test
+    public void parse_findWithNumbersAfterFlags_numbersKeptAsKeywords() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo file 2024 report");
+        tasks.addTodo("todo file 1999 report");
+        tasks.addTodo("todo plan /limitless trip");
+
+        assertEquals("This is the list of tasks for keyword: 2024, report (All must match strictly) "
+                + "(Up to 1 typo per keyword)  (Unsorted) \n:1. [T][ ] file 2024 report",
+                new Parser().parse("find /fuzzy 2024 report /all").execute(tasks, new Ui(), null));
+        assertEquals("This is the list of tasks for keyword: 2 (Loose match) (Up to 1 typo per keyword) "
+                + " (Unsorted) \n:1. [T][ ] file 2024 report",
+                new Parser().parse("find /fuzzy 2").execute(tasks, new Ui(), null));
+        assertEquals("This is the list of tasks for keyword: /limitless (Loose match)  (Unsorted) "
+                + "\n:1. [T][ ] plan /limitless trip",
+                new Parser().parse("find /limitless").execute(tasks, new Ui(), null));
+    }
+
+    @Test
+    public void parse_upcomingCommand_success() throws EricException {
+        Parser parser = new Parser();
+        Command cmd = parser.parse("upcoming 5");
+        assertInstanceOf(UpcomingCommand.class, cmd);
+    }
+
+    @Test
+    public void parse_upcomingWithoutCount_exceptionThrown() {
+        Parser parser = new Parser();
+        EricException exception = assertThrows(EricException.class, () -> {
+            parser.parse("upcoming");
+        });
+        assertEquals("Please specify how many upcoming deadlines to show!", exception.getMessage());
+    }
+}
@@ -0,0 +1,78 @@
+package eric.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import eric.task.PrefixTrie;
+
+/**
+ * Tests for suggesting command words, flags and task words as the user types.
+ */
+public class SuggesterTest {
+    private static Suggester suggesterOf(String... words) {
+        PrefixTrie taskWords = new PrefixTrie();
+        for (String word : words) {
+            taskWords.add(word);
+        }
+        return new Suggester(taskWords);
+    }
+
+    @Test
+    public void suggest_firstWord_suggestsCommandWords() {
+        Suggester suggester = suggesterOf("delivery", "event");
+
+        assertEquals(List.of("deadline", "delete"), suggester.suggest("de", 5));
+        assertEquals(List.of("event", "explain"), suggester.suggest("E", 5));
+        assertEquals(List.of(), suggester.suggest("todo", 5));
+        assertEquals(List.of(), suggester.suggest("finddate", 5));
+    }
+
+    @Test
+    public void suggest_wordAfterSlash_suggestsFlags() {
+        Suggester suggester = suggesterOf();
+
+        assertEquals(List.of("/date", "/deadline", "/done"), suggester.suggest("find report /d", 5));
+        assertEquals(List.of("/between", "/by"), suggester.suggest("deadline submit /b", 5));
+        assertEquals(List.of("/all"), suggester.suggest("find book /a", 1));
+    }
+
+    @Test
+    public void suggest_laterWords_suggestsTaskWords() {
+        Suggester suggester = suggesterOf("report", "reports", "read", "todo");
+
+        assertEquals(List.of("read", "report"), suggester.suggest("find Re", 2));
+        assertEquals(List.of("reports"), suggester.suggest("find book report", 5));
+        assertEquals(List.of("todo"), suggester.suggest("find to", 5));
+        assertEquals(List.of(), suggester.suggest("find report ", 5));
+        assertEquals(List.of(), suggester.suggest("", 5));
+    }
+
+    @Test
+    public void suggest_taskWordsSupplied_gotOnlyOnceATaskWordIsSuggested() {
+        AtomicInteger calls = new AtomicInteger();
+        PrefixTrie taskWords = new PrefixTrie();
+        taskWords.add("report");
+        Suggester suggester = new Suggester(() -> {
+            calls.incrementAndGet();
+            return taskWords;
+        });
+
+        assertEquals(List.of("deadline", "delete"), suggester.suggest("de", 5));
+        assertEquals(List.of("/between", "/by"), suggester.suggest("deadline submit /b", 5));
+        assertEquals(0, calls.get());
+        assertEquals(List.of("report"), suggester.suggest("find re", 5));
+        assertEquals(List.of("report"), suggester.suggest("find rep", 5));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void complete_partialLastWord_replacedBySuggestion() {
+        assertEquals("find report ", Suggester.complete("find rep", "report"));
+        assertEquals("deadline ", Suggester.complete("dead", "deadline"));
+        assertEquals("find book /sort ", Suggester.complete("find book /so", "/sort"));
+    }
+}
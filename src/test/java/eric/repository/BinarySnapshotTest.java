@@ -0,0 +1,106 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+import eric.task.Deadline;
+import eric.task.Event;
+import eric.task.Task;
+import eric.task.Todo;
+
+/**
+ * Tests for the binary data file format and its coexistence with the text format.
+ */
+public class BinarySnapshotTest {
+    private static final String TEST_FILE = "./test_binary_tasks.bin";
+    private static final Path DATA_PATH = Paths.get(TEST_FILE);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.deleteIfExists(DATA_PATH);
+    }
+
+    @Test
+    public void writeAndRead_mixedTasks_preservesEveryField() throws Exception {
+        ArrayList<Task> original = new ArrayList<>();
+        original.add(new Todo("buy milk | eggs"));
+        Task deadline = new Deadline("submit report", "2026-02-20");
+        deadline.markDone();
+        original.add(deadline);
+        original.add(new Event("caf\u00e9 meeting", "2026-03-10", "2026-03-12"));
+
+        BinarySnapshot snapshot = new BinarySnapshot();
+        snapshot.write(DATA_PATH, original);
+        ArrayList<Task> loaded = snapshot.read(DATA_PATH);
+
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).toString(), loaded.get(i).toString());
+        }
+        assertEquals("buy milk | eggs", loaded.get(0).getDescription(), "Delimiters need no escaping");
+    }
+
+    @Test
+    public void detect_binaryAndTextFiles_distinguished() throws Exception {
+        new BinarySnapshot().write(DATA_PATH, new ArrayList<>());
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(DATA_PATH));
+
+        Files.writeString(DATA_PATH, "T | 0 | text task" + System.lineSeparator());
+        assertEquals(SnapshotFormat.TEXT, SnapshotFormat.detect(DATA_PATH));
+    }
+
+    @Test
+    public void load_binaryRepositoryWithTextFile_readsAndMigrates() throws Exception {
+        Files.writeString(DATA_PATH, "D | 0 | legacy | 2026-02-20" + System.lineSeparator());
+        Repository repository = new Repository(TEST_FILE, StorageMode.SNAPSHOT, SnapshotFormat.BINARY);
+
+        ArrayList<Task> loaded = repository.load();
+        assertInstanceOf(Deadline.class, loaded.get(0));
+
+        repository.save(loaded);
+        assertEquals(SnapshotFormat.BINARY, SnapshotFormat.detect(DATA_PATH));
+        assertEquals("legacy", repository.load().get(0).getDescription());
+    }
+
+    @Test
+    public void read_truncatedFile_exceptionThrown() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("will be cut off"));
+        new BinarySnapshot().write(DATA_PATH, tasks);
+        byte[] bytes = Files.readAllBytes(DATA_PATH);
+        Files.write(DATA_PATH, Arrays.copyOf(bytes, bytes.length - 4));
+
+        EricException exception = assertThrows(EricException.class, () -> new BinarySnapshot().read(DATA_PATH));
+        assertEquals("File might be corrupted!", exception.getMessage());
+    }
+
+    @Test
+    public void read_descriptionLengthPastEndOfFile_exceptionThrown() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("length will be damaged"));
+        new BinarySnapshot().write(DATA_PATH, tasks);
+        byte[] bytes = Files.readAllBytes(DATA_PATH);
+        // The only record starts after the header and its offset, and its length follows the type and status
+        ByteBuffer.wrap(bytes).putInt(4 * Integer.BYTES + 2, Integer.MAX_VALUE);
+        Files.write(DATA_PATH, bytes);
+
+        EricException exception = assertThrows(EricException.class, () -> new BinarySnapshot().read(DATA_PATH));
+        assertEquals("File might be corrupted!", exception.getMessage());
+        IllegalStateException lazyException = assertThrows(IllegalStateException.class, () ->
+                new BinarySnapshot().readLazily(DATA_PATH).get(0));
+        assertEquals("File might be corrupted!", lazyException.getMessage());
+    }
+}
@@ -0,0 +1,134 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+import eric.task.Deadline;
+import eric.task.Task;
+import eric.task.Todo;
+
+/**
+ * Tests for the checksummed text format and the quarantine of damaged records on load.
+ */
+public class ChecksummedSnapshotTest {
+    private static final String TEST_FILE = "./test_checksummed_tasks.txt";
+    private static final Path DATA_PATH = Paths.get(TEST_FILE);
+    private static final Path QUARANTINE_PATH = Paths.get(TEST_FILE + ".quarantine");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        for (String suffix : List.of("", ".bak", ".tmp", ".quarantine")) {
+            Files.deleteIfExists(Paths.get(TEST_FILE + suffix));
+        }
+    }
+
+    private ArrayList<Task> sampleTasks() throws EricException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        Task deadline = new Deadline("caf\u00e9 report", "2026-02-20");
+        deadline.markDone();
+        tasks.add(deadline);
+        tasks.add(new Todo("return book"));
+        return tasks;
+    }
+
+    /**
+     * Flips the checksum's first digit on the given line, leaving the task itself readable.
+     */
+    private void damageLine(int line) throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(DATA_PATH));
+        String damaged = lines.get(line - 1);
+        char flipped = damaged.charAt(0) == '0' ? '1' : '0';
+        lines.set(line - 1, flipped + damaged.substring(1));
+        Files.write(DATA_PATH, lines);
+    }
+
+    @Test
+    public void writeAndRead_mixedTasks_preservesEveryTask() throws Exception {
+        ChecksummedSnapshot snapshot = new ChecksummedSnapshot();
+        ArrayList<Task> original = sampleTasks();
+        snapshot.write(DATA_PATH, original);
+
+        assertEquals(SnapshotFormat.CHECKSUMMED, SnapshotFormat.detect(DATA_PATH));
+        ArrayList<Task> loaded = snapshot.read(DATA_PATH);
+        List<Task> lazilyLoaded = snapshot.readLazily(DATA_PATH);
+        assertEquals(original.size(), loaded.size());
+        assertEquals(original.size(), lazilyLoaded.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).toString(), loaded.get(i).toString());
+            assertEquals(original.get(i).toString(), lazilyLoaded.get(i).toString());
+        }
+    }
+
+    @Test
+    public void read_lineWithoutChecksum_acceptedAsTask() throws Exception {
+        new ChecksummedSnapshot().write(DATA_PATH, sampleTasks());
+        Files.writeString(DATA_PATH, "T | 0 | added by hand" + System.lineSeparator(),
+                StandardOpenOption.APPEND);
+
+        ArrayList<Task> loaded = new ChecksummedSnapshot().read(DATA_PATH);
+
+        assertEquals(4, loaded.size());
+        assertEquals("added by hand", loaded.get(3).getDescription());
+    }
+
+    @Test
+    public void read_checksumMismatchWithoutQuarantine_throwsWithLineNumber() throws Exception {
+        new ChecksummedSnapshot().write(DATA_PATH, sampleTasks());
+        damageLine(3);
+
+        EricException e = assertThrows(EricException.class, () -> new ChecksummedSnapshot().read(DATA_PATH));
+        assertEquals("File might be corrupted! (line 3)", e.getMessage());
+    }
+
+    @Test
+    public void load_checksumMismatch_quarantinesOnlyDamagedTask() throws Exception {
+        Repository repository = new Repository(TEST_FILE, StorageMode.SNAPSHOT, SnapshotFormat.CHECKSUMMED);
+        repository.save(sampleTasks());
+        damageLine(3);
+        String damaged = Files.readAllLines(DATA_PATH).get(2);
+
+        List<Task> loaded = repository.loadLazily();
+
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("return book", loaded.get(1).getDescription());
+        assertEquals(1, repository.getQuarantinedCount());
+        assertFalse(repository.isRestoredFromBackup(), "Undamaged tasks should be kept rather than the backup");
+        assertEquals(List.of(damaged), Files.readAllLines(QUARANTINE_PATH));
+
+        assertEquals(2, repository.load().size(), "The data file should be rewritten without the damaged task");
+        assertEquals(0, repository.getQuarantinedCount());
+    }
+
+    @Test
+    public void loadLazily_damagedChecksumPrefix_quarantinedOnLoad() throws Exception {
+        Repository repository = new Repository(TEST_FILE, StorageMode.SNAPSHOT, SnapshotFormat.CHECKSUMMED);
+        repository.save(sampleTasks());
+        List<String> lines = new ArrayList<>(Files.readAllLines(DATA_PATH));
+        String damaged = "g" + lines.get(2).substring(1);
+        lines.set(2, damaged);
+        Files.write(DATA_PATH, lines);
+
+        List<Task> loaded = repository.loadLazily();
+
+        assertEquals(1, repository.getQuarantinedCount());
+        assertEquals(List.of(damaged), Files.readAllLines(QUARANTINE_PATH));
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("return book", loaded.get(1).getDescription());
+    }
+}
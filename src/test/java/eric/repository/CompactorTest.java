@@ -0,0 +1,121 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+import eric.task.Task;
+import eric.task.TaskChange;
+import eric.task.TaskList;
+import eric.task.Todo;
+
+/**
+ * Tests for background compaction of the journal into the data file.
+ */
+public class CompactorTest {
+    private static final String TEST_FILE = "./test_compactor_tasks.txt";
+    private static final Path DATA_PATH = Paths.get(TEST_FILE);
+    private static final Path JOURNAL_PATH = Paths.get(TEST_FILE + ".journal");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        for (String suffix : List.of("", ".tmp", ".bak", ".journal", ".journal.compacting", ".journal.done")) {
+            Files.deleteIfExists(Paths.get(TEST_FILE + suffix));
+        }
+    }
+
+    private static void append(Journal journal, TaskChange change) throws IOException {
+        journal.appendRecords(journal.formatRecords(List.of(change)), 1);
+    }
+
+    private static void appendAdd(Journal journal, int index, Task task) throws IOException {
+        append(journal, new TaskChange(TaskChange.Type.ADD, index, task));
+    }
+
+    @Test
+    public void compactInBackground_thresholdReached_foldsJournalIntoDataFile() throws Exception {
+        Journal journal = new Journal(JOURNAL_PATH);
+        Compactor compactor = new Compactor(DATA_PATH, journal, SnapshotFormat.TEXT, 3, Long.MAX_VALUE);
+        appendAdd(journal, 0, new Todo("one"));
+        appendAdd(journal, 1, new Todo("two"));
+        assertFalse(compactor.shouldCompact());
+        appendAdd(journal, 2, new Todo("three"));
+        assertTrue(compactor.shouldCompact());
+
+        compactor.compactInBackground();
+        compactor.awaitIdle();
+
+        assertEquals(3, Files.readAllLines(DATA_PATH).size());
+        assertFalse(Files.exists(JOURNAL_PATH), "Compacted records should leave the journal");
+        assertEquals(0, journal.getRecordCount());
+    }
+
+    @Test
+    public void compactInBackground_changesAfterRotation_keptInJournal() throws Exception {
+        Journal journal = new Journal(JOURNAL_PATH);
+        Compactor compactor = new Compactor(DATA_PATH, journal, SnapshotFormat.TEXT, 2, Long.MAX_VALUE);
+        Task first = new Todo("one");
+        appendAdd(journal, 0, first);
+        appendAdd(journal, 1, new Todo("two"));
+
+        compactor.compactInBackground();
+        append(journal, new TaskChange(TaskChange.Type.DELETE, 0, first));
+        compactor.awaitIdle();
+
+        List<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+        assertEquals(1, loaded.size());
+        assertEquals("two", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void recover_leftoverRotatedJournal_compactedOnLoad() throws Exception {
+        Files.writeString(DATA_PATH, "T | 0 | existing" + System.lineSeparator());
+        Files.writeString(Paths.get(TEST_FILE + ".journal.compacting"),
+                "A | T | 0 | rotated" + System.lineSeparator());
+        Files.writeString(JOURNAL_PATH, "M | 1" + System.lineSeparator());
+
+        ArrayList<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("rotated", loaded.get(1).getDescription());
+        assertEquals("X", loaded.get(1).getStatusIcon());
+        assertFalse(Files.exists(Paths.get(TEST_FILE + ".journal.compacting")));
+    }
+
+    @Test
+    public void recover_interruptedBeforeSnapshotMoved_usesNewSnapshot() throws Exception {
+        Files.writeString(DATA_PATH, "T | 0 | old" + System.lineSeparator());
+        Files.writeString(Paths.get(TEST_FILE + ".tmp"),
+                "T | 0 | old" + System.lineSeparator() + "T | 0 | compacted" + System.lineSeparator());
+        Files.writeString(Paths.get(TEST_FILE + ".journal.done"),
+                "A | T | 0 | compacted" + System.lineSeparator());
+
+        ArrayList<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+
+        assertEquals(2, loaded.size(), "Done records must not be replayed a second time");
+        assertFalse(Files.exists(Paths.get(TEST_FILE + ".journal.done")));
+    }
+
+    @Test
+    public void replaceSnapshot_pendingJournal_clearedWithoutDoubleReplay() throws EricException {
+        Repository repository = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo saved once");
+        repository.saveChanges(tasks);
+
+        repository.save(tasks.getEveryTask());
+
+        assertEquals(1, repository.load().size());
+    }
+}
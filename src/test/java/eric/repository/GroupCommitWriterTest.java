@@ -0,0 +1,128 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for gathering journal records into group commits on the writer thread.
+ */
+public class GroupCommitWriterTest {
+
+    /**
+     * Records every group written, optionally holding the first write until released.
+     */
+    private static class RecordingSink implements GroupCommitWriter.BatchSink {
+        private final List<Integer> counts = new ArrayList<>();
+        private final List<Boolean> forced = new ArrayList<>();
+        private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private int failuresLeft;
+        private int finishFailuresLeft;
+
+        RecordingSink(CountDownLatch release, int failuresLeft) {
+            this.release = release;
+            this.failuresLeft = failuresLeft;
+        }
+
+        @Override
+        public void write(String records, int count) throws IOException {
+            firstWriteStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IOException("Disk full");
+            }
+            synchronized (this) {
+                counts.add(count);
+            }
+        }
+
+        @Override
+        public void finish(boolean isForced) throws IOException {
+            synchronized (this) {
+                forced.add(isForced);
+            }
+            if (finishFailuresLeft > 0) {
+                finishFailuresLeft--;
+                throw new IOException("Sync failed");
+            }
+        }
+    }
+
+    @Test
+    public void submit_burstWhileWriting_gatheredIntoOneWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release, 0);
+        GroupCommitWriter writer = new GroupCommitWriter(sink, Durability.FSYNC);
+
+        writer.submit("A | T | 0 | first\n", 1);
+        sink.firstWriteStarted.await();
+        for (int i = 0; i < 99; i++) {
+            writer.submit("M | 0\n", 1);
+        }
+        release.countDown();
+        writer.flush();
+
+        assertEquals(List.of(1, 99), sink.counts);
+        assertEquals(List.of(true, true), sink.forced);
+    }
+
+    @Test
+    public void submit_periodicDurability_heldUntilFlush() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        RecordingSink sink = new RecordingSink(release, 0);
+        GroupCommitWriter writer = new GroupCommitWriter(sink, Durability.PERIODIC, 60_000);
+
+        writer.submit("A | T | 0 | first\n", 1);
+        writer.submit("A | T | 0 | second\n", 1);
+        Thread.sleep(50);
+        assertTrue(sink.counts.isEmpty(), "Periodic writes should wait for their period");
+
+        writer.flush();
+        assertEquals(List.of(2), sink.counts);
+    }
+
+    @Test
+    public void flush_failedWrite_reportedOnceThenRetried() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        RecordingSink sink = new RecordingSink(release, 1);
+        GroupCommitWriter writer = new GroupCommitWriter(sink, Durability.OS_BUFFERED);
+
+        writer.submit("A | T | 0 | kept\n", 1);
+        EricException exception = assertThrows(EricException.class, writer::flush);
+        assertEquals("Met with error while trying to save!", exception.getMessage());
+
+        writer.flush();
+        assertEquals(List.of(1), sink.counts, "The failed records should be written on retry");
+        assertEquals(List.of(false), sink.forced);
+    }
+
+    @Test
+    public void flush_failedSync_finishedAgainWithoutRewriting() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        RecordingSink sink = new RecordingSink(release, 0);
+        sink.finishFailuresLeft = 1;
+        GroupCommitWriter writer = new GroupCommitWriter(sink, Durability.FSYNC);
+
+        writer.submit("A | T | 0 | kept\n", 1);
+        assertThrows(EricException.class, writer::flush);
+
+        writer.flush();
+        assertEquals(List.of(1), sink.counts, "Records already written should not be written again");
+        assertEquals(List.of(true, true), sink.forced);
+    }
+}
@@ -0,0 +1,86 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+import eric.task.Task;
+
+/**
+ * Tests for parsing the text data file in parallel, newline-aligned chunks.
+ */
+public class ParallelTextLoaderTest {
+    private static final Path DATA_PATH = Paths.get("./test_parallel_tasks.txt");
+    private static final int TASK_COUNT = 3000;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.deleteIfExists(DATA_PATH);
+    }
+
+    private String buildFile(String separator) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            if (i % 3 == 0) {
+                content.append("T | 0 | todo ").append(i);
+            } else if (i % 3 == 1) {
+                content.append("D | 1 | deadline ").append(i).append(" | 2026-02-20");
+            } else {
+                content.append("E | 0 | event ").append(i).append(" | 2026-03-10 | 2026-03-12");
+            }
+            content.append(separator);
+        }
+        return content.toString();
+    }
+
+    @Test
+    public void load_manySmallChunks_matchesSequentialReadInOrder() throws Exception {
+        Files.writeString(DATA_PATH, buildFile(System.lineSeparator()));
+
+        ArrayList<Task> expected = new TextSnapshot().readSequentially(DATA_PATH);
+        ArrayList<Task> loaded = new ParallelTextLoader(512).load(DATA_PATH);
+
+        assertEquals(TASK_COUNT, loaded.size());
+        for (int i = 0; i < TASK_COUNT; i++) {
+            assertEquals(expected.get(i).toFileFormat(), loaded.get(i).toFileFormat());
+        }
+    }
+
+    @Test
+    public void load_windowsLineEndingsAndTrailingBlankLines_parsedLikeSequentialRead() throws Exception {
+        Files.writeString(DATA_PATH, buildFile("\r\n") + "\r\n  \n");
+
+        ArrayList<Task> loaded = new ParallelTextLoader(512).load(DATA_PATH);
+
+        assertEquals(TASK_COUNT, loaded.size());
+        assertEquals("todo 2997", loaded.get(TASK_COUNT - 3).getDescription());
+        assertEquals("event 2999", loaded.get(TASK_COUNT - 1).getDescription());
+    }
+
+    @Test
+    public void load_corruptedLineInLaterChunk_reportsAbsoluteLineNumber() throws Exception {
+        Files.writeString(DATA_PATH, buildFile("\n").replace("T | 0 | todo 2400\n", "T | broken\n"));
+
+        EricException parallel = assertThrows(EricException.class, () -> new ParallelTextLoader(512).load(DATA_PATH));
+        EricException sequential = assertThrows(EricException.class, () ->
+                new TextSnapshot().readSequentially(DATA_PATH));
+
+        assertEquals("File might be corrupted! (line 2401)", parallel.getMessage());
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+    }
+
+    @Test
+    public void load_emptyFile_noTasks() throws Exception {
+        Files.writeString(DATA_PATH, "");
+        assertEquals(0, new ParallelTextLoader().load(DATA_PATH).size());
+    }
+}
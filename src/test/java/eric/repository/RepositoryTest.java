@@ -1,11 +1,18 @@
 package eric.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import eric.EricException;
 import eric.task.Deadline;
 import eric.task.Task;
+import eric.task.TaskList;
 import eric.task.Todo;
 
 /**
@@ -21,16 +29,23 @@ import eric.task.Todo;
  */
 public class RepositoryTest {
     private static final String TEST_FILE = "./test_repo_tasks.txt";
+    private static final String TEST_JOURNAL = TEST_FILE + ".journal";
     private Repository repository;
 
     @BeforeEach
     public void setUp() {
-        File file = new File(TEST_FILE);
+        for (String suffix : List.of("", ".bak", ".corrupt", ".journal", ".journal.orphaned")) {
+            deleteIfPresent(TEST_FILE + suffix);
+        }
+        repository = new Repository(TEST_FILE);
+    }
+
+    private void deleteIfPresent(String path) {
+        File file = new File(path);
         if (file.exists()) {
             boolean deleted = file.delete();
             assert deleted : "Failed to delete test file";
         }
-        repository = new Repository(TEST_FILE);
     }
 
     @Test
@@ -206,5 +221,269 @@ public class RepositoryTest {
                     secondLoad.get(i).getDescription());
         }
     }
-}
 
+    @Test
+    public void journalMode_addMarkDelete_replayedOnLoad() throws EricException {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+
+        tasks.addTodo("todo first");
+        journaled.saveChanges(tasks);
+        tasks.addDeadline("deadline second /by 2026-02-20");
+        tasks.addTodo("todo third");
+        journaled.saveChanges(tasks);
+        tasks.setMarkUnmarked("mark 2");
+        journaled.saveChanges(tasks);
+        tasks.deleteTask("delete 1");
+        journaled.saveChanges(tasks);
+
+        ArrayList<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+        assertEquals(2, loaded.size());
+        assertEquals("second", loaded.get(0).getDescription());
+        assertEquals("X", loaded.get(0).getStatusIcon());
+        assertEquals("third", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void journalMode_appendAfterTornRecord_newRecordsKept() throws Exception {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo first");
+        journaled.saveChanges(tasks);
+        Files.writeString(Paths.get(TEST_JOURNAL), "A | T | 0 | sec", StandardOpenOption.APPEND);
+
+        Repository reopened = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList reloaded = new TaskList(reopened.load());
+        reloaded.addTodo("todo third");
+        reopened.saveChanges(reloaded);
+
+        ArrayList<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+        assertEquals(2, loaded.size(), "The torn record should be dropped, not joined to the next one");
+        assertEquals("first", loaded.get(0).getDescription());
+        assertEquals("third", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void journalMode_mutation_doesNotRewriteDataFile() throws EricException {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo journaled only");
+
+        journaled.saveChanges(tasks);
+
+        assertFalse(new File(TEST_FILE).exists(), "Data file should not be rewritten");
+        assertTrue(new File(TEST_JOURNAL).exists(), "Change should be appended to the journal");
+    }
+
+    @Test
+    public void saveChanges_tooManyUnsavedChanges_wholeListSaved() throws EricException {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 2000; i++) {
+            tasks.addTodo("todo task " + i);
+        }
+
+        assertTrue(tasks.hasDroppedChanges());
+        assertTrue(tasks.getUnsavedChanges().isEmpty());
+        journaled.saveChanges(tasks);
+
+        assertFalse(tasks.hasDroppedChanges());
+        List<Task> loaded = journaled.load();
+        assertEquals(2000, loaded.size());
+        assertEquals("task 1999", loaded.get(1999).getDescription());
+    }
+
+    @Test
+    public void saveChanges_markAlreadyDoneTask_nothingWritten() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo already done");
+        tasks.setMarkUnmarked("mark 1");
+        repository.saveChanges(tasks);
+        long version = tasks.getVersion();
+        deleteIfPresent(TEST_FILE);
+
+        tasks.setMarkUnmarked("mark 1");
+        repository.saveChanges(tasks);
+
+        assertEquals(version, tasks.getVersion(), "A no-op mark should not count as a change");
+        assertFalse(new File(TEST_FILE).exists(), "A no-op mark should not touch the disk");
+    }
+
+    @Test
+    public void saveChanges_binaryMarkOnly_statusUpdatedInPlace() throws Exception {
+        Repository binary = new Repository(TEST_FILE, StorageMode.SNAPSHOT, SnapshotFormat.BINARY);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo first");
+        tasks.addDeadline("deadline second /by 2026-02-20");
+        binary.saveChanges(tasks);
+        byte[] before = Files.readAllBytes(Paths.get(TEST_FILE));
+
+        tasks.setMarkUnmarked("mark 2");
+        binary.saveChanges(tasks);
+        byte[] after = Files.readAllBytes(Paths.get(TEST_FILE));
+
+        assertEquals(before.length, after.length);
+        int changedBytes = 0;
+        for (int i = 0; i < before.length; i++) {
+            changedBytes += before[i] == after[i] ? 0 : 1;
+        }
+        assertEquals(1, changedBytes, "Only the status byte of the marked record should change");
+        assertEquals("X", binary.load().get(1).getStatusIcon());
+    }
+
+    @Test
+    public void writeBehind_changesFlushed_replayedOnLoad() throws EricException {
+        Repository writeBehind = new Repository(TEST_FILE, StorageMode.JOURNAL, SnapshotFormat.TEXT,
+                Durability.FSYNC);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo written behind");
+        writeBehind.saveChanges(tasks);
+        tasks.setMarkUnmarked("mark 1");
+        writeBehind.saveChanges(tasks);
+
+        writeBehind.flush();
+
+        ArrayList<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).load();
+        assertEquals(1, loaded.size());
+        assertEquals("X", loaded.get(0).getStatusIcon());
+    }
+
+    @Test
+    public void load_corruptedDataFile_restoredFromBackup() throws Exception {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo first");
+        repository.saveChanges(tasks);
+        tasks.addTodo("todo second");
+        repository.saveChanges(tasks);
+        Files.writeString(Paths.get(TEST_FILE), "T | 0 | first" + System.lineSeparator() + "T | torn");
+
+        ArrayList<Task> loaded = repository.load();
+
+        assertTrue(repository.isRestoredFromBackup());
+        assertEquals(1, loaded.size(), "The backup holds the generation before the last save");
+        assertEquals("first", loaded.get(0).getDescription());
+        assertTrue(new File(TEST_FILE + ".corrupt").exists(), "The unreadable file should be kept aside");
+        assertEquals(1, repository.load().size(), "The restored data file should now be readable");
+        assertFalse(repository.isRestoredFromBackup());
+    }
+
+    @Test
+    public void journalMode_corruptedDataFile_journalSetAside() throws Exception {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo first");
+        journaled.save(tasks.getEveryTask());
+        journaled.save(tasks.getEveryTask());
+        tasks.deleteTask("delete 1");
+        journaled.saveChanges(tasks);
+        Files.writeString(Paths.get(TEST_FILE), "garbage");
+
+        ArrayList<Task> loaded = journaled.load();
+
+        assertEquals(1, loaded.size(), "Journaled deletes must not be replayed onto the backup");
+        assertFalse(new File(TEST_JOURNAL).exists());
+        assertTrue(new File(TEST_JOURNAL + ".orphaned").exists());
+    }
+
+    @Test
+    public void journalMode_save_replacesJournalWithSnapshot() throws EricException {
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo snapshotted");
+        journaled.saveChanges(tasks);
+
+        journaled.save(tasks.getEveryTask());
+
+        assertFalse(new File(TEST_JOURNAL).exists(), "Journal should be cleared after a full save");
+        ArrayList<Task> loaded = journaled.load();
+        assertEquals(1, loaded.size(), "Journaled task should not be replayed twice");
+    }
+
+    @Test
+    public void journalMode_corruptedRecordBeforeEnd_exceptionThrown() throws Exception {
+        Files.writeString(Paths.get(TEST_JOURNAL),
+                "M | 5" + System.lineSeparator() + "A | T | 0 | valid" + System.lineSeparator());
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+
+        EricException exception = assertThrows(EricException.class, journaled::load);
+        assertEquals("Journal might be corrupted!", exception.getMessage());
+    }
+
+    @Test
+    public void journalMode_tornLastRecord_ignored() throws Exception {
+        Files.writeString(Paths.get(TEST_JOURNAL),
+                "A | T | 0 | valid" + System.lineSeparator() + "A | D | 0 | torn");
+        Repository journaled = new Repository(TEST_FILE, StorageMode.JOURNAL);
+
+        ArrayList<Task> loaded = journaled.load();
+        assertEquals(1, loaded.size());
+        assertEquals("valid", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void loadLazily_textFile_rebuildsOnlyAccessedTasks() throws Exception {
+        Files.writeString(Paths.get(TEST_FILE), "T | 0 | first" + System.lineSeparator()
+                + "D | 1 | second | 2026-02-20" + System.lineSeparator()
+                + "E | 0 | third | 2026-02-20 | 2026-02-21" + System.lineSeparator()
+                + System.lineSeparator());
+
+        List<Task> loaded = repository.loadLazily();
+
+        assertInstanceOf(LazyTaskList.class, loaded);
+        assertEquals(3, loaded.size(), "Trailing blank lines should be ignored");
+        assertEquals(3, ((LazyTaskList) loaded).getUnreadCount());
+        assertEquals("second", loaded.get(1).getDescription());
+        assertEquals(2, ((LazyTaskList) loaded).getUnreadCount());
+        assertEquals(repository.load().toString(), loaded.toString());
+    }
+
+    @Test
+    public void loadLazily_journalMode_replaysOnTopOfUnreadTasks() throws Exception {
+        Files.writeString(Paths.get(TEST_FILE), "T | 0 | first" + System.lineSeparator()
+                + "T | 0 | second" + System.lineSeparator());
+        Files.writeString(Paths.get(TEST_JOURNAL), "X | 0" + System.lineSeparator()
+                + "A | T | 0 | third" + System.lineSeparator());
+
+        List<Task> loaded = new Repository(TEST_FILE, StorageMode.JOURNAL).loadLazily();
+
+        assertEquals(2, loaded.size());
+        assertEquals("second", loaded.get(0).getDescription());
+        assertEquals("third", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void loadLazily_binaryFile_rebuildsOnlyAccessedTasks() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("first"));
+        tasks.add(new Deadline("second", "2026-02-20"));
+        new Repository(TEST_FILE, StorageMode.SNAPSHOT, SnapshotFormat.BINARY).save(tasks);
+
+        List<Task> loaded = repository.loadLazily();
+
+        assertEquals(2, ((LazyTaskList) loaded).getUnreadCount());
+        assertInstanceOf(Deadline.class, loaded.get(1));
+        assertEquals(1, ((LazyTaskList) loaded).getUnreadCount());
+    }
+
+    @Test
+    public void loadLazily_corruptedLine_reportedOnlyWhenAccessed() throws Exception {
+        Files.writeString(Paths.get(TEST_FILE), "T | 0 | fine" + System.lineSeparator()
+                + "T | broken" + System.lineSeparator());
+
+        List<Task> loaded = repository.loadLazily();
+
+        assertEquals("fine", loaded.get(0).getDescription());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> loaded.get(1));
+        assertEquals("File might be corrupted! (line 2)", exception.getMessage());
+    }
+
+    @Test
+    public void loadLazily_corruptedLine_failsEverySearch() throws Exception {
+        Files.writeString(Paths.get(TEST_FILE), "T | 0 | fine" + System.lineSeparator()
+                + "T | broken" + System.lineSeparator());
+        TaskList tasks = new TaskList(repository.loadLazily());
+
+        assertThrows(IllegalStateException.class, () -> tasks.findUpcomingDeadlines(LocalDate.MIN, 1));
+        assertThrows(IllegalStateException.class, () -> tasks.findUpcomingDeadlines(LocalDate.MIN, 1));
+    }
+}
@@ -0,0 +1,89 @@
+package eric.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eric.task.Task;
+import eric.task.Todo;
+
+/**
+ * Tests for replacing the data file atomically while keeping a backup of the previous snapshot.
+ */
+public class SnapshotFileTest {
+    private static final String TEST_FILE = "./test_snapshot_file_tasks.txt";
+    private static final Path DATA_PATH = Paths.get(TEST_FILE);
+    private static final Path TEMP_PATH = Paths.get(TEST_FILE + ".tmp");
+    private static final Path BACKUP_PATH = Paths.get(TEST_FILE + ".bak");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        for (Path path : List.of(DATA_PATH, TEMP_PATH, BACKUP_PATH)) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void replace_existingFile_previousGenerationKeptAsBackup() throws Exception {
+        SnapshotFile snapshotFile = new SnapshotFile(DATA_PATH);
+        List<Task> first = List.of(new Todo("first"));
+        List<Task> second = List.of(new Todo("first"), new Todo("second"));
+
+        snapshotFile.replace(new TextSnapshot(), first);
+        snapshotFile.replace(new TextSnapshot(), second);
+
+        assertEquals(2, Files.readAllLines(DATA_PATH).size());
+        assertEquals(List.of("T | 0 | first"), Files.readAllLines(BACKUP_PATH));
+        assertFalse(Files.exists(TEMP_PATH));
+    }
+
+    @Test
+    public void recover_crashBetweenRenames_tempMovedIntoPlace() throws Exception {
+        Files.writeString(BACKUP_PATH, "T | 0 | old" + System.lineSeparator());
+        Files.writeString(TEMP_PATH, "T | 0 | new" + System.lineSeparator());
+
+        new SnapshotFile(DATA_PATH).recover();
+
+        assertEquals(List.of("T | 0 | new"), Files.readAllLines(DATA_PATH));
+        assertFalse(Files.exists(TEMP_PATH));
+    }
+
+    @Test
+    public void recover_partlyWrittenTemp_discarded() throws Exception {
+        Files.writeString(DATA_PATH, "T | 0 | current" + System.lineSeparator());
+        Files.writeString(TEMP_PATH, "T | 0 | half wri");
+
+        new SnapshotFile(DATA_PATH).recover();
+
+        assertEquals(List.of("T | 0 | current"), Files.readAllLines(DATA_PATH));
+        assertFalse(Files.exists(TEMP_PATH));
+    }
+
+    @Test
+    public void readLazily_dataFileReplacedLater_keepsTasksRead() throws Exception {
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            format.getSnapshot().write(DATA_PATH, List.of(new Todo("first")));
+            List<Task> lazy = format.getSnapshot().readLazily(DATA_PATH);
+
+            // A mapped file would show the new bytes, and could not be replaced at all on Windows
+            byte[] bytes = Files.readAllBytes(DATA_PATH);
+            String text = new String(bytes, StandardCharsets.ISO_8859_1);
+            int position = text.indexOf("first");
+            System.arraycopy("xxxxx".getBytes(StandardCharsets.ISO_8859_1), 0, bytes, position, 5);
+            Files.write(DATA_PATH, bytes);
+            new SnapshotFile(DATA_PATH).replace(format.getSnapshot(), List.of(new Todo("second")));
+
+            assertEquals("first", lazy.get(0).getDescription(), format.toString());
+            Files.deleteIfExists(BACKUP_PATH);
+        }
+    }
+}
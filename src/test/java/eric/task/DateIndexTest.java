@@ -0,0 +1,121 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the date index and the date searches of the task list that use it.
+ */
+public class DateIndexTest {
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    /**
+     * Checks a task's dates the way date searches did before the index.
+     */
+    private static boolean fallsOnByScan(Task task, LocalDate date) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy().equals(date);
+        }
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            return !date.isBefore(event.getFrom()) && !date.isAfter(event.getTo());
+        }
+        return false;
+    }
+
+    @Test
+    public void findOn_deadlinesAndEvents_matchesDueAndOngoingTasks() throws EricException {
+        DateIndex index = new DateIndex();
+        index.add(0, new Deadline("report", LocalDate.of(2026, 3, 10)));
+        index.add(1, new Event("trip", LocalDate.of(2026, 3, 8), LocalDate.of(2026, 3, 12)));
+        index.add(2, new Todo("read"));
+        index.add(3, new Event("conference", LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 10)));
+        index.add(4, new Event("course", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30)));
+
+        assertArrayEquals(new int[] {0, 1, 3, 4}, index.findOn(LocalDate.of(2026, 3, 10)));
+        assertArrayEquals(new int[] {1, 4}, index.findOn(LocalDate.of(2026, 3, 12)));
+        assertArrayEquals(new int[0], index.findOn(LocalDate.of(2026, 7, 1)));
+
+        index.remove(1, new Event("trip", LocalDate.of(2026, 3, 8), LocalDate.of(2026, 3, 12)));
+        index.remove(0, new Deadline("report", LocalDate.of(2026, 3, 10)));
+        assertArrayEquals(new int[] {3, 4}, index.findOn(LocalDate.of(2026, 3, 10)));
+    }
+
+    @Test
+    public void findBetween_overlappingTasks_returnedInDateOrder() throws EricException {
+        DateIndex index = new DateIndex();
+        index.add(0, new Deadline("late report", LocalDate.of(2026, 3, 14)));
+        index.add(1, new Event("trip", LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 9)));
+        index.add(2, new Deadline("early report", LocalDate.of(2026, 3, 9)));
+        index.add(3, new Event("later event", LocalDate.of(2026, 3, 20), LocalDate.of(2026, 3, 21)));
+        index.add(4, new Event("same day", LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 9)));
+        index.add(5, new Deadline("too early", LocalDate.of(2026, 3, 7)));
+
+        DateRange range = new DateRange(LocalDate.of(2026, 3, 8), LocalDate.of(2026, 3, 15));
+        assertArrayEquals(new int[] {1, 2, 4, 0}, index.findBetween(range));
+    }
+
+    @Test
+    public void findUpcomingDeadlines_mixedDates_soonestFromTodayFirst() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addDeadline("deadline overdue /by 2026-02-27");
+        tasks.addDeadline("deadline later /by 2026-03-10");
+        tasks.addEvent("event soon /from 2026-03-01 /to 2026-03-02");
+        tasks.addDeadline("deadline today /by 2026-02-28");
+        tasks.addDeadline("deadline soon /by 2026-03-01");
+        tasks.addDeadline("deadline also today /by 2026-02-28");
+
+        List<String> upcoming = new ArrayList<>();
+        for (Task task : tasks.findUpcomingDeadlines(LocalDate.of(2026, 2, 28), 3)) {
+            upcoming.add(task.getDescription());
+        }
+        assertEquals(List.of("today", "also today", "soon"), upcoming);
+    }
+
+    @Test
+    public void findTasksByKeyword_dateAfterAddsAndDeletes_matchesFullScan() throws EricException {
+        Random random = new Random(7);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 400; i++) {
+            LocalDate from = START.plusDays(random.nextInt(60));
+            switch (random.nextInt(3)) {
+            case 0:
+                tasks.addTodo("todo task " + i);
+                break;
+            case 1:
+                tasks.addDeadline("deadline task " + i + " /by " + from);
+                break;
+            default:
+                tasks.addEvent("event task " + i + " /from " + from + " /to " + from.plusDays(random.nextInt(10)));
+                break;
+            }
+            if (i == 50) {
+                tasks.findTasksByKeyword(new String[] {""}, START, false, false, false, false, false);
+            }
+            if (i > 50 && random.nextInt(4) == 0) {
+                tasks.deleteTask("delete " + (1 + random.nextInt(tasks.getSize())));
+            }
+        }
+
+        for (int day = -1; day < 75; day++) {
+            LocalDate date = START.plusDays(day);
+            List<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getEveryTask()) {
+                if (fallsOnByScan(task, date) && task.getDescription().contains("1")) {
+                    expected.add(task);
+                }
+            }
+            List<Task> found = tasks.findTasksByKeyword(new String[] {"1"}, date, true, false, false, false, false);
+            assertEquals(expected, found, date.toString());
+        }
+    }
+}
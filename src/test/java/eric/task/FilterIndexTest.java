@@ -0,0 +1,121 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the compressed bitmaps and the type and status filters of the task list that use them.
+ */
+public class FilterIndexTest {
+
+    private static int[] toArray(TreeSet<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void idBitmap_sparseAndDenseSets_matchReferenceSets() {
+        Random random = new Random(11);
+        IdBitmap first = new IdBitmap();
+        IdBitmap second = new IdBitmap();
+        TreeSet<Integer> firstIds = new TreeSet<>();
+        TreeSet<Integer> secondIds = new TreeSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Dense ids in the first 65536, sparse ids above, so both container kinds are used
+            int id = i % 2 == 0 ? random.nextInt(1 << 16) : random.nextInt(1 << 22);
+            if (random.nextInt(3) == 0) {
+                first.remove(id);
+                firstIds.remove(id);
+            } else {
+                first.add(id);
+                firstIds.add(id);
+            }
+            if (random.nextInt(4) == 0) {
+                second.add(id);
+                secondIds.add(id);
+            }
+        }
+
+        assertArrayEquals(toArray(firstIds), first.toArray());
+        assertEquals(secondIds.size(), second.cardinality());
+
+        TreeSet<Integer> intersection = new TreeSet<>(firstIds);
+        intersection.retainAll(secondIds);
+        assertArrayEquals(toArray(intersection), first.and(second).toArray());
+        TreeSet<Integer> union = new TreeSet<>(firstIds);
+        union.addAll(secondIds);
+        assertArrayEquals(toArray(union), first.or(second).toArray());
+        TreeSet<Integer> difference = new TreeSet<>(firstIds);
+        difference.removeAll(secondIds);
+        assertArrayEquals(toArray(difference), first.andNot(second).toArray());
+    }
+
+    @Test
+    public void select_typesAndStatus_combinedAsSetOperations() throws EricException {
+        FilterIndex index = new FilterIndex();
+        Task report = new Deadline("report", "2026-03-10");
+        report.markDone();
+        index.add(0, new Todo("read"));
+        index.add(1, report);
+        index.add(2, new Event("trip", "2026-03-08", "2026-03-12"));
+        index.add(3, new Deadline("essay", "2026-03-11"));
+
+        assertArrayEquals(new int[] {1, 3}, index.select(false, true, false, false, false).toArray());
+        assertArrayEquals(new int[] {3}, index.select(false, true, false, false, true).toArray());
+        assertArrayEquals(new int[] {1}, index.select(false, false, false, true, false).toArray());
+
+        index.setDone(0, true);
+        index.remove(1, report);
+        assertArrayEquals(new int[] {0}, index.select(true, true, true, true, false).toArray());
+        assertArrayEquals(new int[] {3, 2}, FilterIndex.retain(new int[] {3, 2, 0}, index.select(
+                false, true, true, false, true)));
+    }
+
+    @Test
+    public void findTasksByKeyword_filtersAfterMarksAndDeletes_matchesFullScan() throws EricException {
+        Random random = new Random(3);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            switch (random.nextInt(3)) {
+            case 0:
+                tasks.addTodo("todo task " + i);
+                break;
+            case 1:
+                tasks.addDeadline("deadline task " + i + " /by 2026-03-10");
+                break;
+            default:
+                tasks.addEvent("event task " + i + " /from 2026-03-08 /to 2026-03-12");
+                break;
+            }
+            if (i == 30) {
+                tasks.findTasksByKeyword(new String[] {"task"}, null, false, true, false, false, false);
+            }
+            if (i > 30 && random.nextInt(4) == 0) {
+                tasks.deleteTask("delete " + (1 + random.nextInt(tasks.getSize())));
+            }
+            String command = random.nextBoolean() ? "mark " : "unmark ";
+            tasks.setMarkUnmarked(command + (1 + random.nextInt(tasks.getSize())));
+        }
+
+        for (String[] keywords : new String[][] {{""}, {"2"}}) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getEveryTask()) {
+                boolean isSelectedType = task instanceof Deadline || task instanceof Todo;
+                if (isSelectedType && !task.isDone() && task.getDescription().contains(keywords[0])) {
+                    expected.add(task);
+                }
+            }
+            Query query = new Query(keywords, null, null, false, 0, true, true, false, false, true, false, false, 0,
+                    Integer.MAX_VALUE);
+            assertEquals(expected, tasks.findTasks(query));
+        }
+    }
+}
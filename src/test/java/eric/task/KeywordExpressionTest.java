@@ -0,0 +1,80 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for keyword expressions and the searches of the task list that match them.
+ */
+public class KeywordExpressionTest {
+    private static final String[] WORDS = {"report", "memo", "draft", "rep", "mo", "plan"};
+
+    private static KeywordExpression randomExpression(Random random, int depth) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            KeywordExpression keyword = KeywordExpression.keyword(WORDS[random.nextInt(WORDS.length)],
+                    random.nextInt(4) == 0 ? 1 + random.nextInt(2) : 0);
+            return random.nextInt(4) == 0 ? KeywordExpression.not(keyword) : keyword;
+        }
+        List<KeywordExpression> parts = new ArrayList<>();
+        for (int i = 0; i < 2 + random.nextInt(2); i++) {
+            parts.add(randomExpression(random, depth - 1));
+        }
+        KeywordExpression combined = random.nextBoolean() ? KeywordExpression.and(parts)
+                : KeywordExpression.or(parts);
+        return random.nextInt(5) == 0 ? KeywordExpression.not(combined) : combined;
+    }
+
+    @Test
+    public void findTasks_randomExpressions_matchesFullScan() throws EricException {
+        Random random = new Random(22);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 400; i++) {
+            StringBuilder description = new StringBuilder("todo");
+            for (int j = 0; j < 1 + random.nextInt(3); j++) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)].toUpperCase());
+            }
+            tasks.addTodo(description.toString());
+            if (random.nextInt(4) == 0) {
+                tasks.setMarkUnmarked("mark " + tasks.getSize());
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            KeywordExpression expression = randomExpression(random, 3);
+            boolean isUndone = random.nextBoolean();
+            List<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getEveryTask()) {
+                if (expression.matches(task.getDescription().toLowerCase()) && (!isUndone || !task.isDone())) {
+                    expected.add(task);
+                }
+            }
+
+            Query query = new Query(expression, null, null, false, false, false, false, isUndone, false, false, 0,
+                    Integer.MAX_VALUE);
+            assertEquals(expected, tasks.findTasks(query), expression + " " + isUndone);
+        }
+    }
+
+    @Test
+    public void toString_reorderedAndRepeatedParts_printsTheSame() {
+        KeywordExpression report = KeywordExpression.keyword("Report");
+        KeywordExpression memo = KeywordExpression.keyword("memo");
+        KeywordExpression notDraft = KeywordExpression.not(KeywordExpression.keyword("draft"));
+        KeywordExpression first = KeywordExpression.and(List.of(KeywordExpression.or(List.of(report, memo)),
+                notDraft));
+        KeywordExpression second = KeywordExpression.and(List.of(
+                KeywordExpression.not(KeywordExpression.keyword("DRAFT")),
+                KeywordExpression.or(List.of(memo, report, memo))));
+
+        assertEquals("NOT draft AND (memo OR report)", first.toString());
+        assertEquals(first.toString(), second.toString());
+        assertEquals("memo", KeywordExpression.not(KeywordExpression.not(memo)).toString());
+    }
+}
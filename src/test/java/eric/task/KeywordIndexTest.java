@@ -0,0 +1,101 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the keyword index and the searches of the task list that use it.
+ */
+public class KeywordIndexTest {
+    private static final String[] WORDS = {
+        "read", "book", "bookshelf", "Return", "report", "memo", "caf\u00e9", "a", "ok"
+    };
+
+    /**
+     * Matches a description the way searches did before the index, by lowercased substring.
+     */
+    private static boolean matchesByScan(String description, String[] keywords, boolean isStrict) {
+        String lowercased = description.toLowerCase();
+        for (String keyword : keywords) {
+            boolean isContained = lowercased.contains(keyword.toLowerCase());
+            if (isStrict != isContained) {
+                return !isStrict;
+            }
+        }
+        return isStrict;
+    }
+
+    @Test
+    public void findAllAndFindAny_substringKeywords_matchWordsContainingThem() {
+        KeywordIndex index = new KeywordIndex();
+        index.add(0, "Read book");
+        index.add(1, "clean bookshelf");
+        index.add(2, "return library books");
+        index.add(3, "read report");
+
+        assertArrayEquals(new int[] {0, 1, 2}, index.findAny(new String[] {"ook"}));
+        assertArrayEquals(new int[] {0, 3}, index.findAll(new String[] {"read"}));
+        assertArrayEquals(new int[] {0}, index.findAll(new String[] {"read", "book"}));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.findAny(new String[] {"book", "rep"}));
+        assertArrayEquals(new int[0], index.findAll(new String[] {"read", "shelf"}));
+
+        index.remove(0, "Read book");
+        assertArrayEquals(new int[] {1, 2}, index.findAny(new String[] {"ook"}));
+    }
+
+    @Test
+    public void findAny_wordsRemovedAndReadded_trigramCandidatesKeptInSync() {
+        KeywordIndex index = new KeywordIndex();
+        index.add(0, "bookshelf");
+        index.add(1, "shelf");
+        index.remove(0, "bookshelf");
+
+        assertArrayEquals(new int[0], index.findAny(new String[] {"ksh"}));
+        assertArrayEquals(new int[] {1}, index.findAny(new String[] {"shelf"}));
+
+        index.add(2, "notebookshelf");
+        assertArrayEquals(new int[] {2}, index.findAny(new String[] {"ksh"}));
+        assertArrayEquals(new int[] {1, 2}, index.findAll(new String[] {"elf", "she"}));
+    }
+
+    @Test
+    public void findTasksByKeyword_afterAddsAndDeletes_matchesFullScan() throws EricException {
+        Random random = new Random(42);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+            for (int words = random.nextInt(3); words > 0; words--) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            tasks.addTodo("todo " + description);
+            if (i == 100) {
+                tasks.findTasksByKeyword(new String[] {"ok"}, null, false, false, false, false, false);
+            }
+            if (i > 100 && random.nextInt(4) == 0) {
+                tasks.deleteTask("delete " + (1 + random.nextInt(tasks.getSize())));
+            }
+        }
+
+        String[][] queries = {{"OOK"}, {"read", "book"}, {"re", "mo"}, {"caf\u00e9"}, {"a", "ok", "r"}, {"zzz"}};
+        for (String[] keywords : queries) {
+            for (boolean isStrict : new boolean[] {true, false}) {
+                List<Task> expected = new ArrayList<>();
+                for (Task task : tasks.getEveryTask()) {
+                    if (matchesByScan(task.getDescription(), keywords, isStrict)) {
+                        expected.add(task);
+                    }
+                }
+                List<Task> found = tasks.findTasksByKeyword(keywords, null, isStrict, false, false, false, false);
+                assertEquals(expected, found, String.join(" ", keywords));
+            }
+        }
+    }
+}
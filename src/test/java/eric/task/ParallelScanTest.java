@@ -0,0 +1,47 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the adaptive parallel scans used where no index applies.
+ */
+public class ParallelScanTest {
+
+    @Test
+    public void filter_parallelAndSequential_sameItemsInInputOrder() {
+        Integer[] items = new Integer[100_000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = (i * 7919) % items.length;
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (Integer item : items) {
+            if (item % 3 == 0) {
+                expected.add(item);
+            }
+        }
+
+        assertEquals(expected, ParallelScan.filter(items, item -> item % 3 == 0, 0));
+        assertEquals(expected, ParallelScan.filter(items, item -> item % 3 == 0, Integer.MAX_VALUE));
+        assertEquals(expected, ParallelScan.filter(items, item -> item % 3 == 0));
+    }
+
+    @Test
+    public void sortDistinct_manyIds_sortedWithoutDuplicates() {
+        Random random = new Random(19);
+        int[] ids = new int[200_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(50_000);
+        }
+        int[] expected = Arrays.stream(ids).distinct().sorted().toArray();
+
+        assertArrayEquals(expected, IdList.sortDistinct(ids, ids.length));
+    }
+}
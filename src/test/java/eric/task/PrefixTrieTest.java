@@ -0,0 +1,68 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the prefix trie of words and the task list that keeps it up to date.
+ */
+public class PrefixTrieTest {
+
+    @Test
+    public void complete_afterAddsAndRemoves_matchesSortedWords() {
+        Random random = new Random(25);
+        PrefixTrie trie = new PrefixTrie();
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = 0; j < 1 + random.nextInt(6); j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            if (random.nextInt(3) == 0) {
+                words.remove(word.toString());
+                trie.remove(word.toString());
+            } else {
+                words.add(word.toString());
+                trie.add(word.toString());
+            }
+        }
+
+        assertEquals(words.size(), trie.size());
+        for (String prefix : new String[] {"", "a", "bc", "dddd", "abcda", "e"}) {
+            List<String> expected = new ArrayList<>();
+            for (String word : words.tailSet(prefix)) {
+                if (!word.startsWith(prefix) || expected.size() == 7) {
+                    break;
+                }
+                expected.add(word);
+            }
+            assertEquals(expected, trie.complete(prefix, 7), prefix);
+        }
+    }
+
+    @Test
+    public void getWordPrefixes_tasksAddedAndDeleted_keepsWordsOfRemainingTasks() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo Read book");
+        PrefixTrie prefixes = tasks.getWordPrefixes();
+        tasks.addTodo("todo read report");
+        tasks.addTodo("todo review budget");
+        tasks.deleteTask("delete 1");
+
+        assertEquals(List.of("read", "report", "review"), prefixes.complete("re", 5));
+        assertFalse(prefixes.contains("book"));
+        tasks.deleteTask("delete 1");
+        assertEquals(List.of("review"), prefixes.complete("re", 5));
+        assertTrue(prefixes.contains("budget"));
+    }
+}
@@ -0,0 +1,96 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the planning of queries and the searches of the task list that run them.
+ */
+public class QueryPlanTest {
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+
+    private static boolean matchesByScan(Task task, String keyword, boolean isDeadline, boolean isUndone,
+                                         LocalDate date, DateRange range) {
+        boolean isInRange = range == null || (task instanceof Deadline
+                && !((Deadline) task).getBy().isBefore(range.getStart())
+                && !((Deadline) task).getBy().isAfter(range.getEnd()))
+                || (task instanceof Event && !((Event) task).getTo().isBefore(range.getStart())
+                && !((Event) task).getFrom().isAfter(range.getEnd()));
+        return task.getDescription().toLowerCase().contains(keyword)
+                && (!isDeadline || task instanceof Deadline)
+                && (!isUndone || !task.isDone())
+                && (date == null || DateIndex.fallsOn(task, date))
+                && isInRange;
+    }
+
+    @Test
+    public void findTasks_filtersInAnyPlannedOrder_matchesFullScan() throws EricException {
+        Random random = new Random(21);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 500; i++) {
+            LocalDate from = START.plusDays(random.nextInt(20));
+            String description = (random.nextInt(10) == 0 ? "Rare " : "common ") + "task " + i;
+            switch (random.nextInt(3)) {
+            case 0:
+                tasks.addTodo("todo " + description);
+                break;
+            case 1:
+                tasks.addDeadline("deadline " + description + " /by " + from);
+                break;
+            default:
+                tasks.addEvent("event " + description + " /from " + from + " /to " + from.plusDays(random.nextInt(3)));
+                break;
+            }
+            if (random.nextInt(3) == 0) {
+                tasks.setMarkUnmarked("mark " + tasks.getSize());
+            }
+        }
+
+        DateRange range = new DateRange(START.plusDays(5), START.plusDays(8));
+        for (String keyword : new String[] {"", "1", "rare", "task"}) {
+            for (int flags = 0; flags < 16; flags++) {
+                boolean isDeadline = (flags & 1) != 0;
+                boolean isUndone = (flags & 2) != 0;
+                LocalDate date = (flags & 4) != 0 ? START.plusDays(6) : null;
+                DateRange searchRange = (flags & 8) != 0 ? range : null;
+                List<Task> expected = new ArrayList<>();
+                for (Task task : tasks.getEveryTask()) {
+                    if (matchesByScan(task, keyword, isDeadline, isUndone, date, searchRange)) {
+                        expected.add(task);
+                    }
+                }
+                expected.sort(Comparator.comparing(Task::getDescription, String::compareToIgnoreCase));
+
+                Query query = new Query(new String[] {keyword.toUpperCase()}, date, searchRange, false, 0,
+                        false, isDeadline, false, false, isUndone, true, false, 0, Integer.MAX_VALUE);
+                assertEquals(expected, tasks.findTasks(query), keyword + " " + flags);
+            }
+        }
+    }
+
+    @Test
+    public void explain_selectiveKeyword_runsFirstAndOthersCheckTheFewTasksLeft() throws EricException {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            tasks.addDeadline("deadline report " + i + " /by " + START.plusDays(i % 10));
+        }
+        tasks.addDeadline("deadline memo /by " + START);
+
+        Query query = new Query(new String[] {"memo"}, START, null, false, 0, false, true, false, false, false,
+                false, false, 0, Integer.MAX_VALUE);
+        assertEquals(List.of("Any of the keywords memo, found through the index (estimate: 1)",
+                "Tasks on 2026-03-01, checked on each remaining task (estimate: 21)",
+                "Type and status filter, found through the index (estimate: 201)",
+                "Keep list order"), tasks.explain(query));
+        assertEquals(1, tasks.findTasks(query).size());
+    }
+}
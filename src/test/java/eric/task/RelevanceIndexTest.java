@@ -0,0 +1,111 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the relevance index and the ranked searches of the task list that use it.
+ */
+public class RelevanceIndexTest {
+    private static final String[] WORDS = {"report", "reports", "memo", "draft", "plan", "review", "budget"};
+
+    private static RelevanceIndex indexOf(KeywordIndex keywordIndex, String... descriptions) {
+        RelevanceIndex index = new RelevanceIndex();
+        for (int id = 0; id < descriptions.length; id++) {
+            keywordIndex.add(id, descriptions[id]);
+            index.add(id, descriptions[id]);
+        }
+        return index;
+    }
+
+    /**
+     * Scores a task the slow way, straight from the descriptions of every task.
+     */
+    private static double scoreByScan(List<Task> tasks, Task task, String[] keywords) {
+        double averageLength = 0;
+        for (Task other : tasks) {
+            averageLength += other.getDescription().split(" ").length;
+        }
+        averageLength /= tasks.size();
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : task.getDescription().toLowerCase().split(" ")) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        int length = task.getDescription().split(" ").length;
+        double score = 0;
+        for (String keyword : keywords) {
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                if (!count.getKey().contains(keyword)) {
+                    continue;
+                }
+                long containing = tasks.stream()
+                        .filter(other -> KeywordIndex.splitIntoWords(other.getDescription()).contains(count.getKey()))
+                        .count();
+                double weight = Math.log(1 + (tasks.size() - containing + 0.5) / (containing + 0.5));
+                int frequency = count.getValue();
+                score += weight * frequency * 2.2 / (frequency + 1.2 * (0.25 + 0.75 * length / averageLength));
+            }
+        }
+        return score;
+    }
+
+    @Test
+    public void rank_rareRepeatedAndShortMatches_rankedFirst() {
+        KeywordIndex keywordIndex = new KeywordIndex();
+        RelevanceIndex index = indexOf(keywordIndex, "send report", "report on report", "report and memo",
+                "write a long report for the team", "send report", "plan budget");
+
+        assertArrayEquals(new int[] {2, 1, 0, 4, 3}, index.rank(List.of("memo", "report"),
+                new int[] {0, 1, 2, 3, 4}, 10, keywordIndex));
+        assertArrayEquals(new int[] {2, 1}, index.rank(List.of("memo", "report"),
+                new int[] {5, 4, 3, 2, 1}, 2, keywordIndex));
+    }
+
+    @Test
+    public void findTasks_rankedAfterAddsAndDeletes_matchesScoresByScan() throws EricException {
+        Random random = new Random(23);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            StringBuilder description = new StringBuilder("todo");
+            for (int j = 0; j < 1 + random.nextInt(5); j++) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            tasks.addTodo(description.toString());
+            if (i % 3 == 0) {
+                tasks.findTasksByKeyword(new String[] {"report"}, null, false, false, false, false, false);
+            }
+            if (random.nextInt(5) == 0) {
+                tasks.deleteTask("delete " + (1 + random.nextInt(tasks.getSize())));
+            }
+        }
+
+        List<Task> everyTask = tasks.getEveryTask();
+        for (String[] keywords : new String[][] {{"report"}, {"memo", "report"}, {"re"}, {"budget", "plan"}}) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : everyTask) {
+                if (scoreByScan(everyTask, task, keywords) > 0) {
+                    expected.add(task);
+                }
+            }
+            // Scores are rounded so that adding them up in another order does not break ties, which a
+            // stable sort keeps in list order
+            expected.sort(Comparator.comparingLong((Task task) -> -Math.round(scoreByScan(everyTask, task,
+                    keywords) * 1e9)));
+
+            Query query = new Query(keywords, null, null, false, 0, false, false, false, false, false, false,
+                    true, 5, 10);
+            assertEquals(expected.subList(5, 15), tasks.findTasks(query), String.join(" ", keywords));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the search cache and the repeated searches of the task list that use it.
+ */
+public class SearchCacheTest {
+
+    @Test
+    public void findTasks_repeatedUntilListChanges_returnsCachedResults() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo read book");
+        tasks.addTodo("todo return book");
+
+        List<Task> first = tasks.findTasks(queryOf("book", "re"));
+        List<Task> repeated = tasks.findTasks(queryOf("re", "book", "re"));
+        assertSame(first, repeated);
+        assertEquals(1, tasks.getSearchCache().getHits());
+        assertEquals(1, tasks.getSearchCache().getMisses());
+
+        tasks.setMarkUnmarked("mark 1");
+        List<Task> afterMark = tasks.findTasks(queryOf("book", "re"));
+        assertNotSame(first, afterMark);
+        assertEquals(first, afterMark);
+        assertEquals(2, tasks.getSearchCache().getMisses());
+
+        tasks.deleteTask("delete 1");
+        assertEquals(1, tasks.findTasks(queryOf("book", "re")).size());
+        assertEquals(3, tasks.getSearchCache().getMisses());
+    }
+
+    @Test
+    public void findTasks_cachedResults_cannotBeChanged() throws EricException {
+        TaskList tasks = new TaskList();
+        tasks.addTodo("todo read book");
+        tasks.addTodo("todo return book");
+
+        List<Task> found = tasks.findTasks(queryOf("book"));
+        assertThrows(UnsupportedOperationException.class, () -> found.remove(0));
+        assertEquals(2, tasks.findTasks(queryOf("book")).size());
+
+        ArrayList<Task> copy = tasks.findTasksByKeyword(new String[] {"book"}, null, false, false, false, false,
+                false);
+        copy.clear();
+        assertEquals(2, tasks.findTasks(queryOf("book")).size());
+    }
+
+    private static Query queryOf(String... keywords) {
+        return new Query(keywords, null, null, false, 0, false, false, false, false, false, false, false, 0,
+                Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void get_overCapacity_forgetsLeastRecentlyUsed() {
+        SearchCache cache = new SearchCache(2);
+        String read = new Query(new String[] {"read"}, null, null, false, 0, false, false, false, false,
+                false, false, false, 0, 1).getCacheKey();
+        String sortedRead = new Query(new String[] {"read"}, null, null, false, 0, false, false, false, false,
+                false, true, false, 0, 1).getCacheKey();
+        String book = new Query(new String[] {"Book", "book"}, null, null, false, 0, false, false, false, false,
+                false, false, false, 0, 1).getCacheKey();
+
+        assertNull(cache.get(read, 0));
+        cache.put(read, new ArrayList<>());
+        assertNull(cache.get(sortedRead, 0));
+        cache.put(sortedRead, new ArrayList<>());
+        cache.get(read, 0);
+        assertNull(cache.get(book, 0));
+        cache.put(book, new ArrayList<>());
+
+        assertNull(cache.get(sortedRead, 0));
+        assertEquals(new ArrayList<>(), cache.get(read, 0));
+        assertNull(cache.get(read, 1));
+    }
+}
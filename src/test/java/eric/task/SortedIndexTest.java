@@ -0,0 +1,123 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import eric.EricException;
+
+/**
+ * Tests for the sorted index and the sorted searches of the task list that use it.
+ */
+public class SortedIndexTest {
+    private static final String[] WORDS = {"apple", "Apple", "banana", "BANANA", "cherry", "\u00e9clair",
+        "\u00c9CLAIR", "Zebra", "zebra"};
+
+    @Test
+    public void collationKey_mixedCase_ordersLikeCompareToIgnoreCase() {
+        for (String first : WORDS) {
+            for (String second : WORDS) {
+                int expected = Integer.signum(first.compareToIgnoreCase(second));
+                int actual = Integer.signum(SortedIndex.collationKey(first)
+                        .compareTo(SortedIndex.collationKey(second)));
+                assertEquals(expected, actual, first + " " + second);
+            }
+        }
+    }
+
+    @Test
+    public void sort_fewAndManyCandidates_sortedByDescriptionThenId() {
+        SortedIndex index = new SortedIndex();
+        index.add(0, "walk Dog");
+        index.add(1, "buy milk");
+        index.add(2, "Walk dog");
+        index.add(3, "Answer email");
+        index.add(4, "call mum");
+        index.add(5, "draft essay");
+        index.add(6, "email Bob");
+        index.add(7, "fix bike");
+        index.remove(4);
+
+        assertArrayEquals(new int[] {3, 1, 5, 6, 7, 0, 2}, index.inOrder());
+        assertArrayEquals(new int[] {1, 2}, index.sort(new int[] {2, 1}));
+        assertArrayEquals(new int[] {3, 1, 5, 0, 2}, index.sort(new int[] {0, 2, 5, 1, 3}));
+    }
+
+    @Test
+    public void sort_firstFew_sameAsStartOfFullSort() {
+        SortedIndex index = new SortedIndex();
+        Random random = new Random(20);
+        for (int id = 0; id < 2000; id++) {
+            index.add(id, WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(100));
+        }
+        int[] everyOther = new int[1000];
+        for (int i = 0; i < everyOther.length; i++) {
+            everyOther[i] = 2 * (everyOther.length - i) - 1;
+        }
+        int[] fullSort = index.sort(everyOther);
+
+        for (int count : new int[] {0, 1, 7, 600, 1000, 5000}) {
+            int[] expected = Arrays.copyOf(fullSort, Math.min(count, fullSort.length));
+            assertArrayEquals(expected, index.sort(everyOther, count), "count " + count);
+        }
+        assertArrayEquals(Arrays.copyOf(index.inOrder(), 5), index.inOrder(5));
+    }
+
+    @Test
+    public void findTasksByKeyword_pages_matchSlicesOfAllResults() throws EricException {
+        TaskList tasks = new TaskList();
+        Random random = new Random(21);
+        for (int i = 0; i < 200; i++) {
+            tasks.addTodo("todo " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+        }
+
+        for (boolean isSorted : new boolean[] {false, true}) {
+            for (String keyword : new String[] {"", "a"}) {
+                List<Task> all = tasks.findTasks(new Query(new String[] {keyword}, null, null, false, 0, false,
+                        false, false, false, false, isSorted, false, 0, Integer.MAX_VALUE));
+                for (int offset : new int[] {0, 5, 195, 300}) {
+                    List<Task> expected = all.subList(Math.min(offset, all.size()), Math.min(offset + 10,
+                            all.size()));
+                    Query query = new Query(new String[] {keyword}, null, null, false, 0, false, false, false,
+                            false, false, isSorted, false, offset, 10);
+                    assertEquals(expected, tasks.findTasks(query), keyword + " " + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findTasksByKeyword_sortedAfterAddsAndDeletes_matchesStableSort() throws EricException {
+        Random random = new Random(5);
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 300; i++) {
+            tasks.addTodo("todo " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(5));
+            if (i == 20) {
+                tasks.findTasksByKeyword(new String[] {"a"}, null, false, false, false, false, true);
+            }
+            if (i > 20 && random.nextInt(4) == 0) {
+                tasks.deleteTask("delete " + (1 + random.nextInt(tasks.getSize())));
+            }
+        }
+
+        for (String keyword : new String[] {"", "a", "RA"}) {
+            List<Task> expected = new ArrayList<>();
+            for (Task task : tasks.getEveryTask()) {
+                if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+                    expected.add(task);
+                }
+            }
+            expected.sort(Comparator.comparing(Task::getDescription, String::compareToIgnoreCase));
+            List<Task> found = tasks.findTasksByKeyword(new String[] {keyword}, null, false, false, false, false,
+                    true);
+            assertEquals(expected, found, keyword);
+        }
+    }
+}
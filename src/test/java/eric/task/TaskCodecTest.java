@@ -0,0 +1,114 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import eric.EricException;
+
+/**
+ * Tests for the regex-free codec behind the text data file.
+ */
+public class TaskCodecTest {
+    private static final int RECORD_COUNT = 20_000;
+    private static final String[] VALID_LINES = {
+        "T | 0 | buy groceries",
+        "T | 1 | complete homework",
+        "D | 0 | submit assignment | 2026-02-20",
+        "D | 1 | finish project | 2026-03-01",
+        "E | 0 | team meeting | 2026-02-15 | 2026-02-16",
+        "E | 1 | conference | 2026-03-10 | 2026-03-12",
+        "T | 0 | buy @store & pay $50",
+        "T | 0 | ",
+        "T | 0 | caf\u00e9 \u65e5\u672c",
+        "D | 0 | far future | +10000-01-01",
+    };
+
+    @Test
+    public void encode_decodedValidLines_byteIdenticalToOriginalAndToFileFormat() throws EricException {
+        TaskCodec codec = new TaskCodec();
+        for (String line : VALID_LINES) {
+            Task task = TaskCodec.decode(line);
+            assertEquals(line, codec.encode(task).toString());
+            assertEquals(task.toFileFormat(), codec.encode(task).toString());
+        }
+    }
+
+    @Test
+    public void decode_linesThatAreNotRoundTripped_matchLegacyParsing() throws EricException {
+        assertEquals("task", TaskCodec.decode("T | 0 | task | with | pipes").getDescription());
+        assertEquals(" ", TaskCodec.decode("T | 2 | task description").getStatusIcon());
+        Deadline padded = (Deadline) TaskCodec.decode("D | 0 | padded |  2026-02-20 ");
+        assertEquals(LocalDate.of(2026, 2, 20), padded.getBy());
+    }
+
+    @Test
+    public void decode_invalidLines_sameErrorsAsBefore() {
+        assertDecodeFails("T | 0", "File might be corrupted!");
+        assertDecodeFails("   ", "File might be corrupted!");
+        assertDecodeFails("D | 0 | no date", "File might be corrupted!");
+        assertDecodeFails("E | 0 | meeting | 2026-02-15", "File might be corrupted!");
+        assertDecodeFails("X | 0 | unknown task type", "Unknown task type found in data file: X");
+        assertDecodeFails("TD | 0 | two letters", "Unknown task type found in data file: TD");
+        assertDecodeFails("D | 0 | leap | 2026-02-29", "Deadline date is in the wrong format!");
+        assertDecodeFails("D | 0 | slashes | 2026/02/20", "Deadline date is in the wrong format!");
+        assertDecodeFails("E | 0 | bad | 2026-13-01 | 2026-12-01", "Event date is in the wrong format!");
+        assertDecodeFails("E | 0 | reversed | 2026-03-12 | 2026-03-10",
+                "Event start date must not be after end date.");
+    }
+
+    private void assertDecodeFails(String line, String message) {
+        EricException exception = assertThrows(EricException.class, () -> TaskCodec.decode(line));
+        assertEquals(message, exception.getMessage(), line);
+    }
+
+    @Test
+    public void decode_manyRecords_allocatesLessPerRecordThanSplitAndParse() throws EricException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        String line = "D | 1 | submit the quarterly report | 2026-02-20";
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            TaskCodec.decode(line);
+        }
+        long codecBytes = (threads.getCurrentThreadAllocatedBytes() - before) / RECORD_COUNT;
+
+        before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            String[] parts = line.split(" \\| ", -1);
+            new Deadline(parts[2], parts[3]);
+        }
+        long legacyBytes = (threads.getCurrentThreadAllocatedBytes() - before) / RECORD_COUNT;
+
+        assertTrue(codecBytes < legacyBytes,
+                "Bytes per record: codec " + codecBytes + ", split and parse " + legacyBytes);
+    }
+
+    @Test
+    public void encode_reusedBuffer_allocatesAlmostNothingPerRecord() throws EricException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        TaskCodec codec = new TaskCodec();
+        Task event = TaskCodec.decode("E | 0 | team meeting | 2026-02-15 | 2026-02-16");
+        codec.encode(event);
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int totalLength = 0;
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            totalLength += codec.encode(event).length();
+        }
+        long codecBytes = (threads.getCurrentThreadAllocatedBytes() - before) / RECORD_COUNT;
+
+        assertEquals(RECORD_COUNT * event.toFileFormat().length(), totalLength);
+        assertTrue(codecBytes < 8, "Bytes per record: " + codecBytes);
+    }
+}
@@ -0,0 +1,56 @@
+package eric.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the term dictionary and the edit distance it searches by.
+ */
+public class TermDictionaryTest {
+
+    @Test
+    public void distance_knownWords_countsFewestEdits() {
+        assertEquals(3, TermDictionary.distance("kitten", "sitting"));
+        assertEquals(2, TermDictionary.distance("report", "reprot"));
+        assertEquals(1, TermDictionary.distance("repot", "report"));
+        assertEquals(4, TermDictionary.distance("", "memo"));
+        assertEquals(0, TermDictionary.distance("memo", "memo"));
+    }
+
+    @Test
+    public void find_afterAddsAndRemoves_matchesCheckingEveryWord() {
+        Random random = new Random(24);
+        TermDictionary dictionary = new TermDictionary();
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = 0; j < 2 + random.nextInt(6); j++) {
+                word.append((char) ('a' + random.nextInt(5)));
+            }
+            if (random.nextInt(3) == 0 && !words.isEmpty()) {
+                String removed = words.pollFirst();
+                dictionary.remove(removed);
+            }
+            words.add(word.toString());
+            dictionary.add(word.toString());
+        }
+
+        for (String query : new String[] {"abc", "eeeee", "ab", "abcdeab"}) {
+            for (int maxEdits = 0; maxEdits <= 3; maxEdits++) {
+                List<String> expected = new ArrayList<>();
+                for (String word : words) {
+                    if (TermDictionary.distance(query, word) <= maxEdits) {
+                        expected.add(word);
+                    }
+                }
+                assertEquals(expected, dictionary.find(query, maxEdits), query + " " + maxEdits);
+            }
+        }
+    }
+}